@@ -0,0 +1,162 @@
+#!/usr/bin/env python3
+"""High-concurrency benchmark comparing the MVC and reactive read APIs.
+
+Opens thousands of keep-alive HTTP/1.1 connections with asyncio (standard
+library only) and measures throughput and latency for each target in turn.
+Each connection issues requests back to back for the given duration, so
+the number of in-flight requests equals the number of open connections.
+
+Example:
+    python load-tests/connection_benchmark.py --connections 10000 --duration 60 \
+        --target mvc=http://localhost:8081/api/laptops/1 \
+        --target reactive=http://localhost:8082/api/laptops/1
+"""
+from __future__ import annotations
+
+import argparse
+import asyncio
+import json
+import resource
+import time
+from dataclasses import dataclass, field
+from typing import List, Tuple
+from urllib.parse import urlsplit
+
+
+@dataclass
+class Stats:
+    latencies: List[float] = field(default_factory=list)
+    status_counts: dict = field(default_factory=dict)
+    connect_failures: int = 0
+    errors: int = 0
+    connected: int = 0
+
+
+def percentile(values: List[float], pct: float) -> float:
+    if not values:
+        return 0.0
+    values_sorted = sorted(values)
+    return values_sorted[min(int(len(values_sorted) * pct), len(values_sorted) - 1)]
+
+
+def raise_file_limit(connections: int) -> None:
+    soft, hard = resource.getrlimit(resource.RLIMIT_NOFILE)
+    wanted = connections + 256
+    if soft < wanted:
+        target = wanted if hard == resource.RLIM_INFINITY else min(wanted, hard)
+        resource.setrlimit(resource.RLIMIT_NOFILE, (target, hard))
+        if target < wanted:
+            print(f"warning: open file limit is {target}, fewer than {wanted} sockets can be opened")
+
+
+async def read_response(reader: asyncio.StreamReader) -> int:
+    status_line = await reader.readline()
+    if not status_line:
+        raise ConnectionError("connection closed by server")
+    status = int(status_line.split()[1])
+    length = None
+    chunked = False
+    while True:
+        line = await reader.readline()
+        if line in (b"\r\n", b"\n", b""):
+            break
+        name, _, value = line.decode("latin-1").partition(":")
+        name = name.strip().lower()
+        if name == "content-length":
+            length = int(value.strip())
+        elif name == "transfer-encoding" and "chunked" in value.lower():
+            chunked = True
+    if chunked:
+        while True:
+            size = int((await reader.readline()).split(b";")[0], 16)
+            await reader.readexactly(size + 2)
+            if size == 0:
+                break
+    elif length:
+        await reader.readexactly(length)
+    return status
+
+
+async def connection_worker(host: str, port: int, request: bytes, deadline: float, stats: Stats,
+                            timeout: float) -> None:
+    try:
+        reader, writer = await asyncio.wait_for(asyncio.open_connection(host, port), timeout)
+    except (OSError, asyncio.TimeoutError):
+        stats.connect_failures += 1
+        return
+    stats.connected += 1
+    try:
+        while time.perf_counter() < deadline:
+            started = time.perf_counter()
+            writer.write(request)
+            try:
+                status = await asyncio.wait_for(read_response(reader), timeout)
+            except (OSError, ConnectionError, ValueError, asyncio.IncompleteReadError, asyncio.TimeoutError):
+                stats.errors += 1
+                return
+            stats.latencies.append(time.perf_counter() - started)
+            stats.status_counts[status] = stats.status_counts.get(status, 0) + 1
+    finally:
+        writer.close()
+
+
+async def run_target(url: str, connections: int, duration: float, ramp_up: float, timeout: float) -> Tuple[Stats, float]:
+    parts = urlsplit(url)
+    host = parts.hostname or "localhost"
+    port = parts.port or 80
+    path = (parts.path or "/") + (f"?{parts.query}" if parts.query else "")
+    request = (f"GET {path} HTTP/1.1\r\nHost: {host}:{port}\r\nAccept: application/json\r\n"
+               f"Connection: keep-alive\r\n\r\n").encode()
+
+    stats = Stats()
+    started = time.perf_counter()
+    deadline = started + ramp_up + duration
+    tasks = []
+    for i in range(connections):
+        tasks.append(asyncio.create_task(connection_worker(host, port, request, deadline, stats, timeout)))
+        if ramp_up > 0 and i % 100 == 99:
+            await asyncio.sleep(ramp_up * 100 / connections)
+    await asyncio.gather(*tasks)
+    return stats, time.perf_counter() - started
+
+
+def summarize(name: str, stats: Stats, elapsed: float) -> dict:
+    ok = sum(count for status, count in stats.status_counts.items() if 200 <= status < 300)
+    return {
+        "target": name,
+        "connected": stats.connected,
+        "connect_failures": stats.connect_failures,
+        "requests": len(stats.latencies),
+        "ok": ok,
+        "errors": stats.errors,
+        "statuses": {str(status): count for status, count in sorted(stats.status_counts.items())},
+        "rps": round(len(stats.latencies) / elapsed, 1) if elapsed else 0.0,
+        "p50_ms": round(percentile(stats.latencies, 0.50) * 1000, 1),
+        "p95_ms": round(percentile(stats.latencies, 0.95) * 1000, 1),
+        "p99_ms": round(percentile(stats.latencies, 0.99) * 1000, 1),
+    }
+
+
+def main() -> None:
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--target", action="append", required=True,
+                        help="name=url, may be repeated; targets are measured one after another")
+    parser.add_argument("--connections", type=int, default=10_000)
+    parser.add_argument("--duration", type=float, default=60.0, help="seconds of steady load per target")
+    parser.add_argument("--ramp-up", type=float, default=10.0, help="seconds over which connections are opened")
+    parser.add_argument("--timeout", type=float, default=30.0, help="per-request and connect timeout, seconds")
+    args = parser.parse_args()
+
+    raise_file_limit(args.connections)
+    results = []
+    for target in args.target:
+        name, _, url = target.partition("=")
+        stats, elapsed = asyncio.run(run_target(url, args.connections, args.duration, args.ramp_up, args.timeout))
+        result = summarize(name, stats, elapsed)
+        results.append(result)
+        print(json.dumps(result))
+    print(json.dumps({"results": results}, indent=2))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,111 @@
+#!/usr/bin/env python3
+"""Measure request latency during the first minute after an instance is ready.
+
+Waits until the readiness probe reports UP (the moment a load balancer would
+start routing traffic) and then sends requests from a few concurrent
+clients for the given duration. Latency percentiles are reported per time
+window, so a cold start shows up as high p99 in the first windows.
+
+Run it once against an instance started with SHOP_WARMUP_ENABLED=false and
+once with the warm-up enabled, restarting the application before each run:
+    python load-tests/first_minute_latency.py --base http://localhost:8080 \
+        --path /api/stats/insights --path /api/laptops/1 --duration 60 --window 10
+"""
+from __future__ import annotations
+
+import argparse
+import json
+import threading
+import time
+import urllib.error
+import urllib.request
+from typing import Dict, List
+
+
+def percentile(values: List[float], pct: float) -> float:
+    if not values:
+        return 0.0
+    values_sorted = sorted(values)
+    return values_sorted[min(int(len(values_sorted) * pct), len(values_sorted) - 1)]
+
+
+def wait_until_ready(base: str, timeout: float) -> float:
+    started = time.perf_counter()
+    while time.perf_counter() - started < timeout:
+        try:
+            with urllib.request.urlopen(f"{base}/actuator/health/readiness", timeout=1) as response:
+                if json.load(response).get("status") == "UP":
+                    return time.perf_counter() - started
+        except (urllib.error.URLError, ConnectionError, TimeoutError, ValueError):
+            pass
+        time.sleep(0.05)
+    raise SystemExit(f"{base} did not become ready within {timeout} s")
+
+
+def client(base: str, paths: List[str], ready_at: float, duration: float, samples: List[tuple], lock: threading.Lock,
+           errors: Dict[str, int]) -> None:
+    index = 0
+    while True:
+        sent = time.perf_counter()
+        if sent - ready_at >= duration:
+            return
+        path = paths[index % len(paths)]
+        index += 1
+        try:
+            with urllib.request.urlopen(f"{base}{path}", timeout=30) as response:
+                response.read()
+        except urllib.error.HTTPError as e:
+            e.read()
+            if e.code >= 500:
+                with lock:
+                    errors[path] = errors.get(path, 0) + 1
+                continue
+        except (urllib.error.URLError, ConnectionError, TimeoutError):
+            with lock:
+                errors[path] = errors.get(path, 0) + 1
+            continue
+        with lock:
+            samples.append((sent - ready_at, path, time.perf_counter() - sent))
+
+
+def main() -> None:
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--base", default="http://localhost:8080")
+    parser.add_argument("--path", action="append", default=None, help="may be repeated")
+    parser.add_argument("--clients", type=int, default=4)
+    parser.add_argument("--duration", type=float, default=60.0)
+    parser.add_argument("--window", type=float, default=10.0)
+    parser.add_argument("--ready-timeout", type=float, default=300.0)
+    args = parser.parse_args()
+    paths = args.path or ["/api/stats/insights", "/api/laptops/1"]
+
+    waited = wait_until_ready(args.base, args.ready_timeout)
+    ready_at = time.perf_counter()
+    samples: List[tuple] = []
+    errors: Dict[str, int] = {}
+    lock = threading.Lock()
+    threads = [threading.Thread(target=client, args=(args.base, paths, ready_at, args.duration, samples, lock, errors))
+               for _ in range(args.clients)]
+    for thread in threads:
+        thread.start()
+    for thread in threads:
+        thread.join()
+
+    print(json.dumps({"waited_for_readiness_s": round(waited, 2), "errors": errors}))
+    start = 0.0
+    while start < args.duration:
+        for path in paths:
+            latencies = [latency for at, p, latency in samples if p == path and start <= at < start + args.window]
+            print(json.dumps({
+                "window_s": f"{int(start)}-{int(start + args.window)}",
+                "path": path,
+                "requests": len(latencies),
+                "p50_ms": round(percentile(latencies, 0.50) * 1000, 1),
+                "p99_ms": round(percentile(latencies, 0.99) * 1000, 1),
+                "max_ms": round(max(latencies, default=0.0) * 1000, 1),
+            }))
+        start += args.window
+
+
+if __name__ == "__main__":
+    main()
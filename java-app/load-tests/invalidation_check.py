@@ -0,0 +1,82 @@
+#!/usr/bin/env python3
+"""Measure how long a write on one instance takes to reach another.
+
+Adds laptops with unique series numbers through the writer instance and
+polls the search endpoint of every reader instance until each laptop is
+found. The search index is held in memory, so a reader only finds the
+laptop after it has applied the invalidation message from Postgres.
+
+Example (two instances started with SHOP_INVALIDATION_ENABLED=true):
+    python load-tests/invalidation_check.py --writer http://localhost:8080 \
+        --reader http://localhost:8090 --writes 20
+"""
+from __future__ import annotations
+
+import argparse
+import json
+import time
+import urllib.parse
+import urllib.request
+import uuid
+from statistics import median
+
+
+def add_laptop(base: str, series_number: str, timeout: float) -> None:
+    payload = {
+        "seriesNumber": series_number,
+        "producer": "invalidation-check",
+        "price": 999.99,
+        "numberOfProductsInStock": 1,
+        "size": "15 inches",
+    }
+    req = urllib.request.Request(f"{base}/api/laptops/add", data=json.dumps(payload).encode(), method="POST",
+                                 headers={"Content-Type": "application/json"})
+    with urllib.request.urlopen(req, timeout=timeout) as response:
+        response.read()
+
+
+def found(base: str, series_number: str, timeout: float) -> bool:
+    query = urllib.parse.urlencode({"q": series_number, "size": 1})
+    with urllib.request.urlopen(f"{base}/api/products/search?{query}", timeout=timeout) as response:
+        hits = json.load(response).get("hits", [])
+    return any(hit.get("seriesNumber") == series_number for hit in hits)
+
+
+def main() -> None:
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--writer", default="http://localhost:8080")
+    parser.add_argument("--reader", action="append", default=None, help="may be repeated")
+    parser.add_argument("--writes", type=int, default=20)
+    parser.add_argument("--deadline", type=float, default=10.0, help="seconds to wait for each write to propagate")
+    parser.add_argument("--timeout", type=float, default=10.0)
+    args = parser.parse_args()
+    readers = args.reader or ["http://localhost:8090"]
+
+    lags = {reader: [] for reader in readers}
+    missed = {reader: 0 for reader in readers}
+    for _ in range(args.writes):
+        series_number = f"INV-{uuid.uuid4().hex[:12]}"
+        add_laptop(args.writer, series_number, args.timeout)
+        written = time.perf_counter()
+        for reader in readers:
+            while not found(reader, series_number, args.timeout):
+                if time.perf_counter() - written > args.deadline:
+                    missed[reader] += 1
+                    break
+                time.sleep(0.005)
+            else:
+                lags[reader].append(time.perf_counter() - written)
+
+    for reader in readers:
+        values = sorted(lags[reader])
+        print(json.dumps({
+            "reader": reader,
+            "propagated": len(values),
+            "missed": missed[reader],
+            "median_ms": round(median(values) * 1000, 1) if values else None,
+            "max_ms": round(values[-1] * 1000, 1) if values else None,
+        }))
+
+
+if __name__ == "__main__":
+    main()
@@ -4,7 +4,9 @@
 Features:
 - Adjustable duration and concurrency
 - Computes RPS, average latency, and percentile latencies
-- Reports error rate
+- Reports error rate and fast load-shedding rejections (503)
+- Optional background workload to saturate another endpoint (e.g. stats)
+  while latency of the target URL is measured
 - Optional in-process mock server to avoid external dependencies
 """
 from __future__ import annotations
@@ -61,30 +63,50 @@ def percentile(values: List[float], pct: float) -> float:
     return d0 + d1
 
 
-def worker(url: str, timeout: float, stop_event: threading.Event, results: queue.Queue):
+def worker(url: str, timeout: float, stop_event: threading.Event, results: queue.Queue,
+           honor_retry_after: bool = False):
     while not stop_event.is_set():
         start = time.perf_counter()
-        success = True
+        status = 0
+        retry_after = 0.0
         try:
             with urllib.request.urlopen(url, timeout=timeout) as resp:
                 # read response to ensure connection fully consumed
                 resp.read()
                 status = resp.status
-                if status >= 500:
-                    success = False
-        except (urllib.error.URLError, urllib.error.HTTPError, TimeoutError):
-            success = False
+        except urllib.error.HTTPError as e:
+            status = e.code
+            if status == 503 and honor_retry_after:
+                retry_after = float(e.headers.get("Retry-After") or 0)
+        except (urllib.error.URLError, TimeoutError):
+            status = 0
         elapsed = time.perf_counter() - start
-        results.put((elapsed, success))
+        results.put((elapsed, status))
+        if retry_after > 0:
+            stop_event.wait(retry_after)
 
 
-def run_load(url: str, duration: float, concurrency: int, timeout: float) -> None:
+def start_workers(url: str, concurrency: int, timeout: float, stop_event: threading.Event, results: queue.Queue,
+                  honor_retry_after: bool = False):
+    threads = [threading.Thread(target=worker, args=(url, timeout, stop_event, results, honor_retry_after), daemon=True)
+               for _ in range(concurrency)]
+    for t in threads:
+        t.start()
+    return threads
+
+
+def run_load(url: str, duration: float, concurrency: int, timeout: float,
+             background_url: str | None = None, background_concurrency: int = 0,
+             background_retry_after: bool = False) -> None:
     stop_event = threading.Event()
     results: queue.Queue = queue.Queue()
-    threads = [threading.Thread(target=worker, args=(url, timeout, stop_event, results), daemon=True) for _ in range(concurrency)]
+    background_results: queue.Queue = queue.Queue()
 
-    for t in threads:
-        t.start()
+    threads = []
+    if background_url and background_concurrency > 0:
+        threads += start_workers(background_url, background_concurrency, timeout, stop_event, background_results,
+                                 background_retry_after)
+    threads += start_workers(url, concurrency, timeout, stop_event, results)
 
     time.sleep(duration)
     stop_event.set()
@@ -93,23 +115,32 @@ def run_load(url: str, duration: float, concurrency: int, timeout: float) -> Non
     for t in threads:
         t.join()
 
+    report("Load Test Report", url, duration, concurrency, results)
+    if background_url and background_concurrency > 0:
+        report("Background Workload", background_url, duration, background_concurrency, background_results)
+
+
+def report(title: str, url: str, duration: float, concurrency: int, results: queue.Queue) -> None:
     latencies: List[float] = []
     successes = 0
+    rejected = 0
     total = 0
     while not results.empty():
-        elapsed, ok = results.get()
+        elapsed, status = results.get()
         latencies.append(elapsed)
-        successes += 1 if ok else 0
+        successes += 1 if 0 < status < 500 else 0
+        rejected += 1 if status == 503 else 0
         total += 1
 
     errors = total - successes
     rps = total / duration if duration > 0 else 0
     avg_latency_ms = mean(latencies) * 1000 if latencies else 0
 
-    print("=== Load Test Report ===")
+    print(f"=== {title} ===")
     print(f"Target URL: {url}")
     print(f"Duration: {duration}s, Concurrency: {concurrency}")
     print(f"Requests: {total}, Success: {successes}, Errors: {errors}, Error rate: {errors / total * 100 if total else 0:.2f}%")
+    print(f"Rejected with 503 (load shedding): {rejected}")
     print(f"RPS: {rps:.2f}")
     print(f"Average latency: {avg_latency_ms:.2f} ms")
     print(f"p50 latency: {percentile(latencies, 0.50) * 1000:.2f} ms")
@@ -123,6 +154,10 @@ def main():
     parser.add_argument("--duration", type=float, default=10.0, help="Test duration in seconds")
     parser.add_argument("--concurrency", type=int, default=20, help="Number of concurrent workers")
     parser.add_argument("--timeout", type=float, default=2.0, help="Request timeout in seconds")
+    parser.add_argument("--background-url", help="URL hammered in parallel to saturate it, e.g. /api/stats/insights")
+    parser.add_argument("--background-concurrency", type=int, default=0, help="Workers for the background URL")
+    parser.add_argument("--background-retry-after", action="store_true",
+                        help="Background workers wait for Retry-After after a 503, like a well-behaved client")
     parser.add_argument("--mock", action="store_true", help="Run against a local mock server (port 18080)")
     args = parser.parse_args()
 
@@ -137,7 +172,8 @@ def main():
         time.sleep(random.uniform(0.1, 0.3))
 
     try:
-        run_load(url, args.duration, args.concurrency, args.timeout)
+        run_load(url, args.duration, args.concurrency, args.timeout,
+                 args.background_url, args.background_concurrency, args.background_retry_after)
     finally:
         if server:
             server.shutdown()
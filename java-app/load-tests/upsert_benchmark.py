@@ -0,0 +1,94 @@
+#!/usr/bin/env python3
+"""Compare bulk upsert throughput with the save-per-item flow.
+
+Generates a synthetic supplier feed of laptops and loads it into a running
+service three ways:
+- save:   one POST /api/laptops/add per row (current flow)
+- upsert: chunked PUT /api/laptops/upsert with fresh series numbers
+- resync: the same upsert feed again, where every row is unchanged
+"""
+from __future__ import annotations
+
+import argparse
+import json
+import random
+import threading
+import time
+import urllib.request
+from concurrent.futures import ThreadPoolExecutor
+
+SIZES = ["13 inches", "14 inches", "15 inches", "17 inches"]
+
+
+def generate(rows: int, prefix: str, seed: int) -> list[dict]:
+    rnd = random.Random(seed)
+    return [
+        {
+            "seriesNumber": f"{prefix}-{i:07d}",
+            "producer": f"producer-{rnd.randrange(500)}",
+            "price": round(rnd.uniform(300, 3000), 2),
+            "numberOfProductsInStock": rnd.randrange(100),
+            "size": rnd.choice(SIZES),
+        }
+        for i in range(rows)
+    ]
+
+
+def request(method: str, url: str, payload, timeout: float) -> dict:
+    data = json.dumps(payload).encode()
+    req = urllib.request.Request(url, data=data, method=method, headers={"Content-Type": "application/json"})
+    with urllib.request.urlopen(req, timeout=timeout) as resp:
+        return json.loads(resp.read() or b"{}")
+
+
+def run_save(base: str, feed: list[dict], concurrency: int, timeout: float) -> float:
+    start = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=concurrency) as pool:
+        list(pool.map(lambda row: request("POST", f"{base}/api/laptops/add", row, timeout), feed))
+    return time.perf_counter() - start
+
+
+def run_upsert(base: str, feed: list[dict], chunk: int, concurrency: int, timeout: float) -> tuple[float, dict]:
+    totals = {"inserted": 0, "updated": 0, "unchanged": 0}
+    lock = threading.Lock()
+
+    def send(part: list[dict]):
+        result = request("PUT", f"{base}/api/laptops/upsert", part, timeout)
+        with lock:
+            for key in totals:
+                totals[key] += result.get(key, 0)
+
+    start = time.perf_counter()
+    with ThreadPoolExecutor(max_workers=concurrency) as pool:
+        list(pool.map(send, [feed[i:i + chunk] for i in range(0, len(feed), chunk)]))
+    return time.perf_counter() - start, totals
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Bulk upsert vs save-per-item benchmark")
+    parser.add_argument("--url", default="http://localhost:8080", help="Service base URL")
+    parser.add_argument("--rows", type=int, default=100_000, help="Rows in the synthetic feed")
+    parser.add_argument("--chunk", type=int, default=5_000, help="Rows per upsert request")
+    parser.add_argument("--concurrency", type=int, default=8, help="Parallel requests")
+    parser.add_argument("--timeout", type=float, default=120.0, help="Request timeout in seconds")
+    parser.add_argument("--skip-save", action="store_true", help="Skip the slow save-per-item run")
+    args = parser.parse_args()
+
+    run_id = int(time.time())
+    print("=== Upsert Benchmark ===")
+    print(f"Rows: {args.rows}, chunk: {args.chunk}, concurrency: {args.concurrency}")
+
+    if not args.skip_save:
+        elapsed = run_save(args.url, generate(args.rows, f"save{run_id}", 1), args.concurrency, args.timeout)
+        print(f"save-per-item: {elapsed:.1f}s, {args.rows / elapsed:.0f} rows/s")
+
+    feed = generate(args.rows, f"upsert{run_id}", 2)
+    elapsed, totals = run_upsert(args.url, feed, args.chunk, args.concurrency, args.timeout)
+    print(f"upsert (new rows): {elapsed:.1f}s, {args.rows / elapsed:.0f} rows/s, {totals}")
+
+    elapsed, totals = run_upsert(args.url, feed, args.chunk, args.concurrency, args.timeout)
+    print(f"upsert (re-sync, unchanged): {elapsed:.1f}s, {args.rows / elapsed:.0f} rows/s, {totals}")
+
+
+if __name__ == "__main__":
+    main()
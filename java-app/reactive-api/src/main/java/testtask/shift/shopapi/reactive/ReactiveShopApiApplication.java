@@ -0,0 +1,13 @@
+package testtask.shift.shopapi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveShopApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveShopApiApplication.class, args);
+    }
+
+}
@@ -0,0 +1,59 @@
+package testtask.shift.shopapi.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.StatsResponse;
+import testtask.shift.shopapi.reactive.repository.ProductFilter;
+import testtask.shift.shopapi.reactive.service.CatalogReadService;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/api")
+public class CatalogReadController {
+    private final CatalogReadService catalogReadService;
+
+    public CatalogReadController(CatalogReadService catalogReadService) {
+        this.catalogReadService = catalogReadService;
+    }
+
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<StatsResponse> getStats() {
+        return catalogReadService.getStats();
+    }
+
+    @GetMapping(value = {"/{category}", "/{category}/"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Product> getProducts(@PathVariable String category,
+                                     @RequestParam(required = false) String producer,
+                                     @RequestParam(required = false) BigDecimal minPrice,
+                                     @RequestParam(required = false) BigDecimal maxPrice) {
+        return catalogReadService.getProducts(categoryOf(category), new ProductFilter(producer, minPrice, maxPrice));
+    }
+
+    @GetMapping(value = "/{category}/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Product> getProduct(@PathVariable String category, @PathVariable long id) {
+        return catalogReadService.getProduct(categoryOf(category), id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found")));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public Mono<Void> badRequest(IllegalArgumentException e) {
+        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    private static ProductCategory categoryOf(String path) {
+        return ProductCategory.fromName(path);
+    }
+}
@@ -0,0 +1,7 @@
+package testtask.shift.shopapi.reactive.repository;
+
+import java.math.BigDecimal;
+
+public record ProductFilter(String producer, BigDecimal minPrice, BigDecimal maxPrice) {
+    public static final ProductFilter NONE = new ProductFilter(null, null, null);
+}
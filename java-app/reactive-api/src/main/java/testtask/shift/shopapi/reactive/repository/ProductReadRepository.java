@@ -0,0 +1,148 @@
+package testtask.shift.shopapi.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.StatsResponse;
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.model.pc.FormFactor;
+import testtask.shift.shopapi.model.pc.PersonalComputer;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Repository
+public class ProductReadRepository {
+    private static final String COLUMNS = "id, series_number, producer, price, number_of_products_in_stock, ";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ProductReadRepository(DatabaseClient databaseClient,
+                                 @Value("${shop.reactive.fetch-size:500}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<Product> findAll(ProductCategory category, ProductFilter filter) {
+        Table table = Table.of(category);
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(table.extraColumn())
+                .append(" FROM ").append(table.name()).append(" WHERE 1 = 1");
+        if (filter.producer() != null) {
+            sql.append(" AND producer = :producer");
+        }
+        if (filter.minPrice() != null) {
+            sql.append(" AND price >= :minPrice");
+        }
+        if (filter.maxPrice() != null) {
+            sql.append(" AND price <= :maxPrice");
+        }
+        sql.append(" ORDER BY id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(fetchSize));
+        if (filter.producer() != null) {
+            spec = spec.bind("producer", filter.producer());
+        }
+        if (filter.minPrice() != null) {
+            spec = spec.bind("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            spec = spec.bind("maxPrice", filter.maxPrice());
+        }
+        return spec.map((row, metadata) -> table.map(row)).all();
+    }
+
+    public Mono<Product> findById(ProductCategory category, long id) {
+        Table table = Table.of(category);
+        return databaseClient.sql("SELECT " + COLUMNS + table.extraColumn() + " FROM " + table.name() + " WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> table.map(row))
+                .one();
+    }
+
+    public Mono<StatsResponse> stats() {
+        StringBuilder sql = new StringBuilder();
+        for (ProductCategory category : ProductCategory.values()) {
+            sql.append(sql.length() == 0 ? "" : " UNION ALL ")
+                    .append("SELECT '").append(category.name()).append("' AS category, count(*) AS products, ")
+                    .append("coalesce(sum(number_of_products_in_stock), 0) AS stock FROM ")
+                    .append(Table.of(category).name());
+        }
+        return databaseClient.sql(sql.toString())
+                .map((row, metadata) -> new CategoryTotals(ProductCategory.valueOf(row.get("category", String.class)),
+                        row.get("products", Long.class), row.get("stock", BigDecimal.class).longValue()))
+                .all()
+                .collectMap(CategoryTotals::category, totals -> totals, () -> new EnumMap<>(ProductCategory.class))
+                .map(ProductReadRepository::toStats);
+    }
+
+    private static StatsResponse toStats(Map<ProductCategory, CategoryTotals> totals) {
+        long products = totals.values().stream().mapToLong(CategoryTotals::products).sum();
+        long stock = totals.values().stream().mapToLong(CategoryTotals::stock).sum();
+        return new StatsResponse(products,
+                totals.get(ProductCategory.LAPTOPS).products(),
+                totals.get(ProductCategory.MONITORS).products(),
+                totals.get(ProductCategory.PERSONAL_COMPUTERS).products(),
+                totals.get(ProductCategory.HARD_DRIVES).products(),
+                stock);
+    }
+
+    private record CategoryTotals(ProductCategory category, long products, long stock) {
+    }
+
+    private record Table(String name, String extraColumn, ProductCategory category) {
+        static Table of(ProductCategory category) {
+            return switch (category) {
+                case LAPTOPS -> new Table("laptop", "size", category);
+                case MONITORS -> new Table("monitor", "diagonal", category);
+                case PERSONAL_COMPUTERS -> new Table("personal_computer", "form_factor", category);
+                case HARD_DRIVES -> new Table("hard_drive", "capacity", category);
+            };
+        }
+
+        Product map(Row row) {
+            Product product = switch (category) {
+                case LAPTOPS -> {
+                    Laptop laptop = new Laptop();
+                    laptop.setSize(ordinal(LaptopSize.values(), row.get("size", Integer.class)));
+                    yield laptop;
+                }
+                case MONITORS -> {
+                    Monitor monitor = new Monitor();
+                    monitor.setDiagonal(row.get("diagonal", Double.class));
+                    yield monitor;
+                }
+                case PERSONAL_COMPUTERS -> {
+                    PersonalComputer computer = new PersonalComputer();
+                    computer.setFormFactor(ordinal(FormFactor.values(), row.get("form_factor", Integer.class)));
+                    yield computer;
+                }
+                case HARD_DRIVES -> {
+                    HardDrive hardDrive = new HardDrive();
+                    hardDrive.setCapacity(row.get("capacity", Double.class));
+                    yield hardDrive;
+                }
+            };
+            product.setId(row.get("id", Long.class));
+            product.setSeriesNumber(row.get("series_number", String.class));
+            product.setProducer(row.get("producer", String.class));
+            product.setPrice(row.get("price", BigDecimal.class));
+            product.setNumberOfProductsInStock(row.get("number_of_products_in_stock", Long.class));
+            return product;
+        }
+
+        private static <E extends Enum<E>> E ordinal(E[] values, Integer ordinal) {
+            return ordinal != null ? values[ordinal] : null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package testtask.shift.shopapi.reactive.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.StatsResponse;
+import testtask.shift.shopapi.reactive.repository.ProductFilter;
+
+public interface CatalogReadService {
+    Flux<Product> getProducts(ProductCategory category, ProductFilter filter);
+
+    Mono<Product> getProduct(ProductCategory category, long id);
+
+    Mono<StatsResponse> getStats();
+}
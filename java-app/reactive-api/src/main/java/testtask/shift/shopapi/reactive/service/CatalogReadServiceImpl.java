@@ -0,0 +1,37 @@
+package testtask.shift.shopapi.reactive.service;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.StatsResponse;
+import testtask.shift.shopapi.reactive.repository.ProductFilter;
+import testtask.shift.shopapi.reactive.repository.ProductReadRepository;
+
+@Service
+public class CatalogReadServiceImpl implements CatalogReadService {
+    private final ProductReadRepository productReadRepository;
+
+    public CatalogReadServiceImpl(ProductReadRepository productReadRepository) {
+        this.productReadRepository = productReadRepository;
+    }
+
+    @Override
+    public Flux<Product> getProducts(ProductCategory category, ProductFilter filter) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice().compareTo(filter.maxPrice()) > 0) {
+            return Flux.error(new IllegalArgumentException("minPrice must not exceed maxPrice"));
+        }
+        return productReadRepository.findAll(category, filter);
+    }
+
+    @Override
+    public Mono<Product> getProduct(ProductCategory category, long id) {
+        return productReadRepository.findById(category, id);
+    }
+
+    @Override
+    public Mono<StatsResponse> getStats() {
+        return productReadRepository.stats();
+    }
+}
@@ -0,0 +1,94 @@
+package testtask.shift.shopapi.reactive.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.StatsResponse;
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.reactive.repository.ProductFilter;
+import testtask.shift.shopapi.reactive.service.CatalogReadService;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = CatalogReadController.class)
+class CatalogReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private CatalogReadService catalogReadService;
+
+    @Test
+    void returnsFilteredProductsAsJsonArray() {
+        ProductFilter filter = new ProductFilter("Lenovo", new BigDecimal("100"), null);
+        when(catalogReadService.getProducts(ProductCategory.LAPTOPS, filter)).thenReturn(Flux.just(
+                new Laptop(1L, "LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14)));
+
+        webTestClient.get().uri("/api/laptops?producer=Lenovo&minPrice=100")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].seriesNumber").isEqualTo("LN-1")
+                .jsonPath("$[0].size").isEqualTo("14 inches");
+    }
+
+    @Test
+    void streamsProductsAsNdjsonOnDemand() {
+        when(catalogReadService.getProducts(ProductCategory.HARD_DRIVES, ProductFilter.NONE)).thenReturn(Flux.range(1, 1_000)
+                .map(id -> new HardDrive((long) id, "HD-" + id, "Seagate", BigDecimal.TEN, 1L, 512.0)));
+
+        Flux<HardDrive> body = webTestClient.get().uri("/api/hdds")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(HardDrive.class)
+                .getResponseBody();
+
+        StepVerifier.create(body, 10)
+                .expectNextCount(10)
+                .thenRequest(990)
+                .expectNextCount(990)
+                .verifyComplete();
+    }
+
+    @Test
+    void returnsNotFoundForMissingProduct() {
+        when(catalogReadService.getProduct(ProductCategory.MONITORS, 42L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/monitors/42")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void rejectsUnknownCategory() {
+        webTestClient.get().uri("/api/phones")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void returnsStats() {
+        when(catalogReadService.getStats()).thenReturn(Mono.just(new StatsResponse(10, 3, 2, 4, 1, 17)));
+
+        webTestClient.get().uri("/api/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalProducts").isEqualTo(10)
+                .jsonPath("$.totalStockUnits").isEqualTo(17);
+    }
+}
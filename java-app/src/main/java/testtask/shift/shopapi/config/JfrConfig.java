@@ -0,0 +1,22 @@
+package testtask.shift.shopapi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import testtask.shift.shopapi.jfr.JfrRepositoryPostProcessor;
+import testtask.shift.shopapi.jfr.JfrRequestInterceptor;
+
+@Configuration
+public class JfrConfig {
+    @Bean
+    @ConditionalOnProperty(name = "shop.jfr.requests.enabled", havingValue = "true", matchIfMissing = true)
+    JfrRequestInterceptor jfrRequestInterceptor() {
+        return new JfrRequestInterceptor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shop.jfr.repositories.enabled", havingValue = "true", matchIfMissing = true)
+    static JfrRepositoryPostProcessor jfrRepositoryPostProcessor() {
+        return new JfrRepositoryPostProcessor();
+    }
+}
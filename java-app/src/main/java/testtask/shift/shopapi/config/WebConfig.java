@@ -0,0 +1,83 @@
+package testtask.shift.shopapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import testtask.shift.shopapi.jfr.JfrRequestInterceptor;
+import testtask.shift.shopapi.routing.ReadYourWritesInterceptor;
+import testtask.shift.shopapi.service.ResponseSnapshotService;
+import testtask.shift.shopapi.web.AdaptiveConcurrencyLimiter;
+import testtask.shift.shopapi.web.AdmissionControlInterceptor;
+import testtask.shift.shopapi.web.Bulkhead;
+import testtask.shift.shopapi.web.ResponseSnapshotInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<JfrRequestInterceptor> jfrRequestInterceptor;
+    private final ObjectProvider<AdmissionControlInterceptor> admissionControlInterceptor;
+    private final ObjectProvider<ResponseSnapshotService> responseSnapshotService;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    public WebConfig(ObjectProvider<JfrRequestInterceptor> jfrRequestInterceptor,
+                     ObjectProvider<AdmissionControlInterceptor> admissionControlInterceptor,
+                     ObjectProvider<ResponseSnapshotService> responseSnapshotService,
+                     ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor) {
+        this.jfrRequestInterceptor = jfrRequestInterceptor;
+        this.admissionControlInterceptor = admissionControlInterceptor;
+        this.responseSnapshotService = responseSnapshotService;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        jfrRequestInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+        readYourWritesInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+        responseSnapshotService.ifAvailable(service -> {
+            ResponseSnapshotInterceptor interceptor = new ResponseSnapshotInterceptor(service);
+            registry.addInterceptor(interceptor).addPathPatterns(interceptor.getPathPatterns());
+        });
+        admissionControlInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shop.admission.enabled", havingValue = "true")
+    static class AdmissionControlConfig {
+        @Bean
+        AdmissionControlInterceptor admissionControlInterceptor(
+                @Value("${shop.admission.stats.max-concurrent:4}") int statsMaxConcurrent,
+                @Value("${shop.admission.read.max-concurrent:40}") int readMaxConcurrent,
+                @Value("${shop.admission.write.max-concurrent:20}") int writeMaxConcurrent,
+                @Value("${shop.admission.adaptive.min-limit:5}") int minLimit,
+                @Value("${shop.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+            return new AdmissionControlInterceptor(
+                    new Bulkhead("stats", statsMaxConcurrent),
+                    new Bulkhead("read", readMaxConcurrent),
+                    new AdaptiveConcurrencyLimiter(readMaxConcurrent, Math.min(minLimit, readMaxConcurrent), readMaxConcurrent),
+                    new Bulkhead("write", writeMaxConcurrent),
+                    new AdaptiveConcurrencyLimiter(writeMaxConcurrent, Math.min(minLimit, writeMaxConcurrent), writeMaxConcurrent),
+                    retryAfterSeconds);
+        }
+    }
+}
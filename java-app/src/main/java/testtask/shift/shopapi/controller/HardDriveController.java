@@ -7,9 +7,20 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.SeriesNumberConstraint;
 import testtask.shift.shopapi.service.HardDriveService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/hdds")
@@ -24,19 +35,32 @@ public class HardDriveController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "HDDs list",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = HardDrive.class))))})
-    @GetMapping(value = {"", "/"}, produces = "application/json")
+    @GetMapping(value = {"", "/"}, produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public @NotNull
     Iterable<HardDrive> getHardDrives() {
         return hardDriveService.getAllHardDrives();
     }
 
+    @Operation(summary = "Get HDDs list with selected properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "HDDs list with requested properties only"),
+            @ApiResponse(responseCode = "400", description = "Unknown property requested in fields")})
+    @GetMapping(value = {"", "/"}, params = "fields", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public ProductProjection getHardDrivesFields(@RequestParam List<String> fields) {
+        try {
+            return hardDriveService.getAllHardDrives(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @Operation(summary = "Get HDD by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "HDD by this ID was found",
                     content = @Content(schema = @Schema(implementation = HardDrive.class))),
             @ApiResponse(responseCode = "404", description = "HDD by this ID was not found",
                     content = @Content(schema = @Schema(implementation = HardDrive.class)))})
-    @GetMapping(value = "/{id}", produces = "application/json")
+    @GetMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public HardDrive getHardDrive(@PathVariable long id) {
         return hardDriveService.getHardDrive(id);
     }
@@ -44,8 +68,9 @@ public class HardDriveController {
     @Operation(summary = "Create new HDD")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "New HDD was created",
-                    content = @Content(schema = @Schema(implementation = HardDrive.class)))})
-    @PostMapping(value = "/add", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = HardDrive.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PostMapping(value = "/add", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public HardDrive createNewHardDrive(@RequestBody HardDrive newHardDrive) {
         return hardDriveService.save(newHardDrive);
     }
@@ -53,12 +78,35 @@ public class HardDriveController {
     @Operation(summary = "Edit existing HDD")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "HDD was edited",
-                    content = @Content(schema = @Schema(implementation = HardDrive.class)))})
-    @PutMapping(value = "/{id}", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = HardDrive.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PutMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public HardDrive editHardDrive(@PathVariable long id,
                                    @RequestBody @org.jetbrains.annotations.NotNull HardDrive newHardDrive) {
         hardDriveService.getHardDrive(id);
         newHardDrive.setId(id);
         return hardDriveService.save(newHardDrive);
     }
+
+    @Operation(summary = "Insert or update HDDs by series number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts of inserted, updated and unchanged HDDs",
+                    content = @Content(schema = @Schema(implementation = UpsertResult.class))),
+            @ApiResponse(responseCode = "400", description = "Series number is missing")})
+    @PutMapping(value = "/upsert", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public UpsertResult upsertHardDrives(@RequestBody List<HardDrive> hardDrives) {
+        try {
+            return hardDriveService.upsert(hardDrives);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public void seriesNumberConflict(DataIntegrityViolationException e, HttpServletResponse response) throws IOException {
+        if (!SeriesNumberConstraint.isViolatedBy(e)) {
+            throw e;
+        }
+        response.sendError(HttpStatus.CONFLICT.value(), "HDD with this series number already exists");
+    }
 }
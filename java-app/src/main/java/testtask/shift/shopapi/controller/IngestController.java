@@ -0,0 +1,85 @@
+package testtask.shift.shopapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.ingest.IngestStatusResponse;
+import testtask.shift.shopapi.service.IngestQueueFullException;
+import testtask.shift.shopapi.service.IngestService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ingest")
+@ConditionalOnProperty(name = "shop.ingest.enabled", havingValue = "true")
+public class IngestController {
+    private final IngestService ingestService;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+
+    public IngestController(IngestService ingestService,
+                            ObjectMapper objectMapper,
+                            @Value("${shop.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.ingestService = ingestService;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Operation(summary = "Queue products for asynchronous creation")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Products were validated and queued",
+                    content = @Content(schema = @Schema(implementation = IngestStatusResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown category or invalid product"),
+            @ApiResponse(responseCode = "503", description = "Ingest queue is full, retry later")})
+    @PostMapping(value = "/{category}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public ResponseEntity<IngestStatusResponse> ingest(@PathVariable String category, @RequestBody List<JsonNode> products) {
+        IngestStatusResponse accepted;
+        try {
+            ProductCategory productCategory = ProductCategory.fromName(category);
+            List<Product> parsed = new ArrayList<>(products.size());
+            for (JsonNode product : products) {
+                parsed.add(objectMapper.convertValue(product, productCategory.getEntityClass()));
+            }
+            accepted = ingestService.submit(productCategory, parsed);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/ingest/" + accepted.getTrackingId()))
+                .body(accepted);
+    }
+
+    @Operation(summary = "Get ingest request status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Current status of the ingest request",
+                    content = @Content(schema = @Schema(implementation = IngestStatusResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired tracking id")})
+    @GetMapping(value = "/{trackingId}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public IngestStatusResponse getStatus(@PathVariable String trackingId) {
+        return ingestService.getStatus(trackingId);
+    }
+
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<Void> queueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+}
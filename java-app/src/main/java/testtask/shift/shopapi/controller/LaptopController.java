@@ -7,9 +7,20 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.SeriesNumberConstraint;
 import testtask.shift.shopapi.service.LaptopService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/laptops")
@@ -24,19 +35,32 @@ public class LaptopController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Laptops list",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = Laptop.class))))})
-    @GetMapping(value = {"", "/"}, produces = "application/json")
+    @GetMapping(value = {"", "/"}, produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public @NotNull
     Iterable<Laptop> getLaptops() {
         return laptopService.getAllLaptops();
     }
 
+    @Operation(summary = "Get laptops list with selected properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Laptops list with requested properties only"),
+            @ApiResponse(responseCode = "400", description = "Unknown property requested in fields")})
+    @GetMapping(value = {"", "/"}, params = "fields", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public ProductProjection getLaptopsFields(@RequestParam List<String> fields) {
+        try {
+            return laptopService.getAllLaptops(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @Operation(summary = "Get laptop by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Laptop by this ID was found",
                     content = @Content(schema = @Schema(implementation = Laptop.class))),
             @ApiResponse(responseCode = "404", description = "Laptop by this ID was not found",
                     content = @Content(schema = @Schema(implementation = Laptop.class)))})
-    @GetMapping(value = "/{id}", produces = "application/json")
+    @GetMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public Laptop getLaptop(@PathVariable long id) {
         return laptopService.getLaptop(id);
     }
@@ -44,8 +68,9 @@ public class LaptopController {
     @Operation(summary = "Create new laptop")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "New laptop was created",
-                    content = @Content(schema = @Schema(implementation = Laptop.class)))})
-    @PostMapping(value = "/add", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = Laptop.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PostMapping(value = "/add", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public Laptop createNewHLaptop(@RequestBody Laptop newLaptop) {
         return laptopService.save(newLaptop);
     }
@@ -53,12 +78,35 @@ public class LaptopController {
     @Operation(summary = "Edit existing laptop")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Laptop was edited",
-                    content = @Content(schema = @Schema(implementation = Laptop.class)))})
-    @PutMapping(value = "/{id}", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = Laptop.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PutMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public Laptop editLaptop(@PathVariable long id,
                              @RequestBody @org.jetbrains.annotations.NotNull Laptop newLaptop) {
         laptopService.getLaptop(id);
         newLaptop.setId(id);
         return laptopService.save(newLaptop);
     }
+
+    @Operation(summary = "Insert or update laptops by series number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts of inserted, updated and unchanged laptops",
+                    content = @Content(schema = @Schema(implementation = UpsertResult.class))),
+            @ApiResponse(responseCode = "400", description = "Series number is missing")})
+    @PutMapping(value = "/upsert", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public UpsertResult upsertLaptops(@RequestBody List<Laptop> laptops) {
+        try {
+            return laptopService.upsert(laptops);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public void seriesNumberConflict(DataIntegrityViolationException e, HttpServletResponse response) throws IOException {
+        if (!SeriesNumberConstraint.isViolatedBy(e)) {
+            throw e;
+        }
+        response.sendError(HttpStatus.CONFLICT.value(), "Laptop with this series number already exists");
+    }
 }
@@ -7,9 +7,20 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.SeriesNumberConstraint;
 import testtask.shift.shopapi.service.MonitorService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/monitors")
@@ -24,19 +35,32 @@ public class MonitorController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Monitors list",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = Monitor.class))))})
-    @GetMapping(value = {"", "/"}, produces = "application/json")
+    @GetMapping(value = {"", "/"}, produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public @NotNull
     Iterable<Monitor> getMonitors() {
         return monitorService.getAllMonitors();
     }
 
+    @Operation(summary = "Get monitors list with selected properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Monitors list with requested properties only"),
+            @ApiResponse(responseCode = "400", description = "Unknown property requested in fields")})
+    @GetMapping(value = {"", "/"}, params = "fields", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public ProductProjection getMonitorsFields(@RequestParam List<String> fields) {
+        try {
+            return monitorService.getAllMonitors(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @Operation(summary = "Get monitor by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Monitor by this ID was found",
                     content = @Content(schema = @Schema(implementation = Monitor.class))),
             @ApiResponse(responseCode = "404", description = "Monitor by this ID was not found",
                     content = @Content(schema = @Schema(implementation = Monitor.class)))})
-    @GetMapping(value = "/{id}", produces = "application/json")
+    @GetMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public Monitor getMonitor(@PathVariable long id) {
         return monitorService.getMonitor(id);
     }
@@ -44,8 +68,9 @@ public class MonitorController {
     @Operation(summary = "Create new monitor")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "New monitor was created",
-                    content = @Content(schema = @Schema(implementation = Monitor.class)))})
-    @PostMapping(value = "/add", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = Monitor.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PostMapping(value = "/add", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public Monitor createNewMonitor(@RequestBody Monitor newMonitor) {
         return monitorService.save(newMonitor);
     }
@@ -53,12 +78,35 @@ public class MonitorController {
     @Operation(summary = "Edit existing monitor")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Monitor was edited",
-                    content = @Content(schema = @Schema(implementation = Monitor.class)))})
-    @PutMapping(value = "/{id}", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = Monitor.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PutMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public Monitor editMonitor(@PathVariable long id,
                                @RequestBody @org.jetbrains.annotations.NotNull Monitor newMonitor) {
         monitorService.getMonitor(id);
         newMonitor.setId(id);
         return monitorService.save(newMonitor);
     }
+
+    @Operation(summary = "Insert or update monitors by series number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts of inserted, updated and unchanged monitors",
+                    content = @Content(schema = @Schema(implementation = UpsertResult.class))),
+            @ApiResponse(responseCode = "400", description = "Series number is missing")})
+    @PutMapping(value = "/upsert", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public UpsertResult upsertMonitors(@RequestBody List<Monitor> monitors) {
+        try {
+            return monitorService.upsert(monitors);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public void seriesNumberConflict(DataIntegrityViolationException e, HttpServletResponse response) throws IOException {
+        if (!SeriesNumberConstraint.isViolatedBy(e)) {
+            throw e;
+        }
+        response.sendError(HttpStatus.CONFLICT.value(), "Monitor with this series number already exists");
+    }
 }
@@ -7,9 +7,20 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.pc.PersonalComputer;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.SeriesNumberConstraint;
 import testtask.shift.shopapi.service.PersonalComputerService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/pcs")
@@ -24,19 +35,32 @@ public class PersonalComputerController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Personal computers list",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = PersonalComputer.class))))})
-    @GetMapping(value = {"", "/"}, produces = "application/json")
+    @GetMapping(value = {"", "/"}, produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public @NotNull
     Iterable<PersonalComputer> getPersonalComputers() {
         return personalComputerService.getAllPersonalComputers();
     }
 
+    @Operation(summary = "Get a personal computers list with selected properties")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Personal computers list with requested properties only"),
+            @ApiResponse(responseCode = "400", description = "Unknown property requested in fields")})
+    @GetMapping(value = {"", "/"}, params = "fields", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public ProductProjection getPersonalComputersFields(@RequestParam List<String> fields) {
+        try {
+            return personalComputerService.getAllPersonalComputers(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @Operation(summary = "Get PC by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "PC by this ID was found",
                     content = @Content(schema = @Schema(implementation = PersonalComputer.class))),
             @ApiResponse(responseCode = "404", description = "PC by this ID was not found",
                     content = @Content(schema = @Schema(implementation = PersonalComputer.class)))})
-    @GetMapping(value = "/{id}", produces = "application/json")
+    @GetMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public PersonalComputer getPersonalComputer(@PathVariable long id) {
         return personalComputerService.getPersonalComputer(id);
     }
@@ -44,8 +68,9 @@ public class PersonalComputerController {
     @Operation(summary = "Create new PC")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "New PC was created",
-                    content = @Content(schema = @Schema(implementation = PersonalComputer.class)))})
-    @PostMapping(value = "/add", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = PersonalComputer.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PostMapping(value = "/add", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public PersonalComputer createNewPersonalComputer(@RequestBody PersonalComputer newPersonalComputer) {
         return personalComputerService.save(newPersonalComputer);
     }
@@ -53,12 +78,35 @@ public class PersonalComputerController {
     @Operation(summary = "Edit existing PC")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "PC was edited",
-                    content = @Content(schema = @Schema(implementation = PersonalComputer.class)))})
-    @PutMapping(value = "/{id}", produces = "application/json")
+                    content = @Content(schema = @Schema(implementation = PersonalComputer.class))),
+            @ApiResponse(responseCode = "409", description = "Series number is already taken")})
+    @PutMapping(value = "/{id}", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
     public PersonalComputer editPersonalComputer(@PathVariable long id,
                                                  @RequestBody @org.jetbrains.annotations.NotNull PersonalComputer newPersonalComputer) {
         personalComputerService.getPersonalComputer(id);
         newPersonalComputer.setId(id);
         return personalComputerService.save(newPersonalComputer);
     }
+
+    @Operation(summary = "Insert or update PCs by series number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts of inserted, updated and unchanged PCs",
+                    content = @Content(schema = @Schema(implementation = UpsertResult.class))),
+            @ApiResponse(responseCode = "400", description = "Series number is missing")})
+    @PutMapping(value = "/upsert", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public UpsertResult upsertPersonalComputers(@RequestBody List<PersonalComputer> personalComputers) {
+        try {
+            return personalComputerService.upsert(personalComputers);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public void seriesNumberConflict(DataIntegrityViolationException e, HttpServletResponse response) throws IOException {
+        if (!SeriesNumberConstraint.isViolatedBy(e)) {
+            throw e;
+        }
+        response.sendError(HttpStatus.CONFLICT.value(), "PC with this series number already exists");
+    }
 }
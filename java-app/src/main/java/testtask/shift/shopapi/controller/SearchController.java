@@ -0,0 +1,43 @@
+package testtask.shift.shopapi.controller;
+
+import com.sun.istack.NotNull;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.search.SearchResponse;
+import testtask.shift.shopapi.service.ProductSearchService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+@RestController
+@RequestMapping("/api/products")
+public class SearchController {
+    private final ProductSearchService productSearchService;
+
+    public SearchController(ProductSearchService productSearchService) {
+        this.productSearchService = productSearchService;
+    }
+
+    @Operation(summary = "Search products of all categories by producer or series number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranked page of substring and fuzzy matches",
+                    content = @Content(schema = @Schema(implementation = SearchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Query shorter than 3 characters or invalid paging")})
+    @GetMapping(value = "/search", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull SearchResponse search(@RequestParam String q,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size) {
+        try {
+            return productSearchService.search(q, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
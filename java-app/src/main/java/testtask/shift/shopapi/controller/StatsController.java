@@ -2,41 +2,147 @@ package testtask.shift.shopapi.controller;
 
 import com.sun.istack.NotNull;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import testtask.shift.shopapi.model.analytics.CardinalityResponse;
+import testtask.shift.shopapi.model.analytics.HistoryResolution;
+import testtask.shift.shopapi.model.analytics.ProducerBreakdownResponse;
+import testtask.shift.shopapi.model.analytics.ProducerPriceDistribution;
+import testtask.shift.shopapi.model.analytics.StatsHistoryResponse;
 import testtask.shift.shopapi.model.analytics.StatsResponse;
 import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
+import testtask.shift.shopapi.service.AsyncStatsService;
+import testtask.shift.shopapi.service.StatsHistoryService;
+import testtask.shift.shopapi.service.StatsResult;
 import testtask.shift.shopapi.service.StatsService;
+import testtask.shift.shopapi.service.StatsUnavailableException;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/stats")
 public class StatsController {
     private final StatsService statsService;
+    private final StatsHistoryService statsHistoryService;
+    private final AsyncStatsService asyncStatsService;
+    private final long retryAfterSeconds;
 
-    public StatsController(StatsService statsService) {
+    public StatsController(StatsService statsService,
+                           StatsHistoryService statsHistoryService,
+                           AsyncStatsService asyncStatsService,
+                           @Value("${shop.admission.retry-after-seconds:1}") long retryAfterSeconds) {
         this.statsService = statsService;
+        this.statsHistoryService = statsHistoryService;
+        this.asyncStatsService = asyncStatsService;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
     @Operation(summary = "Get aggregated shop statistics")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Counts per product type and total stock",
-                    content = @Content(schema = @Schema(implementation = StatsResponse.class)))})
-    @GetMapping(produces = "application/json")
-    public @NotNull StatsResponse getStats() {
-        return statsService.getStats();
+                    content = @Content(schema = @Schema(implementation = StatsResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Computation timed out and no previous result is available")})
+    @GetMapping(produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull CompletableFuture<ResponseEntity<StatsResponse>> getStats(@RequestParam(required = false) Long timeoutMs) {
+        return compute("stats", timeoutMs, statsService::getStats);
     }
 
     @Operation(summary = "Get detailed analytics")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Per-category metrics including price and inventory value",
-                    content = @Content(schema = @Schema(implementation = StatsInsightsResponse.class)))})
-    @GetMapping(value = "/insights", produces = "application/json")
-    public @NotNull StatsInsightsResponse getInsights() {
-        return statsService.getInsights();
+                    content = @Content(schema = @Schema(implementation = StatsInsightsResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Computation timed out and no previous result is available")})
+    @GetMapping(value = "/insights", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull CompletableFuture<ResponseEntity<StatsInsightsResponse>> getInsights(@RequestParam(required = false) Long timeoutMs) {
+        return compute("insights", timeoutMs, statsService::getInsights);
+    }
+
+    @Operation(summary = "Get approximate price percentiles of a producer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Median, p90 and p99 price per category with rank error bound",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProducerPriceDistribution.class))))})
+    @GetMapping(value = "/insights/prices", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull List<ProducerPriceDistribution> getProducerPrices(@RequestParam String producer) {
+        return statsService.getProducerPrices(producer);
+    }
+
+    @Operation(summary = "Get per-producer metrics within each category")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Top producers by inventory value with the rest folded into an \"other\" bucket",
+                    content = @Content(schema = @Schema(implementation = ProducerBreakdownResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Limit out of range")})
+    @GetMapping(value = "/insights/by-producer", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull ProducerBreakdownResponse getProducerBreakdown(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            return statsService.getProducerBreakdown(limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get approximate distinct producer and series counts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "HyperLogLog estimates per category and across categories",
+                    content = @Content(schema = @Schema(implementation = CardinalityResponse.class)))})
+    @GetMapping(value = "/cardinality", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull CardinalityResponse getCardinality() {
+        return statsService.getCardinality();
+    }
+
+    @Operation(summary = "Get sampled stock and inventory value history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Downsampled history points within the requested range",
+                    content = @Content(schema = @Schema(implementation = StatsHistoryResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown resolution or invalid range")})
+    @GetMapping(value = "/history", produces = {ApiMediaTypes.JSON, ApiMediaTypes.CBOR, ApiMediaTypes.SMILE})
+    public @NotNull StatsHistoryResponse getHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "minute") String resolution) {
+        try {
+            return statsHistoryService.getHistory(from, to, HistoryResolution.fromValue(resolution));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @ExceptionHandler(StatsUnavailableException.class)
+    public ResponseEntity<Void> statsUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> compute(String key, Long timeoutMs, Supplier<T> computation) {
+        try {
+            return asyncStatsService.compute(key, timeoutMs, computation).thenApply(StatsController::toResponse);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static <T> ResponseEntity<T> toResponse(StatsResult<T> result) {
+        if (result.stale()) {
+            return ResponseEntity.ok().header(HttpHeaders.WARNING, "110 - \"Response is Stale\"").body(result.value());
+        }
+        return ResponseEntity.ok(result.value());
     }
 }
@@ -0,0 +1,34 @@
+package testtask.shift.shopapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shop.Aggregation")
+@Label("Stats Aggregation")
+@Category({"Shop API", "Stats"})
+@Description("One category aggregation including loading its rows")
+@StackTrace(false)
+public class AggregationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Product Category")
+    String category;
+
+    @Label("Rows Scanned")
+    long rowsScanned;
+
+    public void complete(String operation, String category, long rowsScanned) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.category = category;
+            this.rowsScanned = rowsScanned;
+            commit();
+        }
+    }
+}
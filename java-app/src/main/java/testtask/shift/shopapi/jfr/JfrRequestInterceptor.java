@@ -0,0 +1,67 @@
+package testtask.shift.shopapi.jfr;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+public class JfrRequestInterceptor implements AsyncHandlerInterceptor {
+    private static final String EVENT_ATTRIBUTE = JfrRequestInterceptor.class.getName() + ".event";
+    private static final String API_PREFIX = "/api/";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(EVENT_ATTRIBUTE) != null) {
+            return true;
+        }
+        RequestEvent event = new RequestEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.isAsyncStarted() || !(request.getAttribute(EVENT_ATTRIBUTE) instanceof RequestEvent event)) {
+            return;
+        }
+        request.removeAttribute(EVENT_ATTRIBUTE);
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.endpoint = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+            event.category = categoryOf(request);
+            event.status = ex != null && response.getStatus() < 400 ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            event.commit();
+        }
+    }
+
+    static String categoryOf(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String candidate = variables instanceof Map<?, ?> map && map.get("category") instanceof String value
+                ? value
+                : firstSegment(request.getRequestURI());
+        for (ProductCategory category : ProductCategory.values()) {
+            if (category.getName().equalsIgnoreCase(candidate) || category.getPath().equalsIgnoreCase(candidate)) {
+                return category.getName();
+            }
+        }
+        return null;
+    }
+
+    private static String firstSegment(String uri) {
+        int start = uri.indexOf(API_PREFIX);
+        if (start < 0) {
+            return null;
+        }
+        start += API_PREFIX.length();
+        int end = uri.indexOf('/', start);
+        return end < 0 ? uri.substring(start) : uri.substring(start, end);
+    }
+}
@@ -0,0 +1,24 @@
+package testtask.shift.shopapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shop.RepositoryCall")
+@Label("Repository Call")
+@Category({"Shop API", "Persistence"})
+@Description("Invocation of a Spring Data repository or @Repository bean method")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,27 @@
+package testtask.shift.shopapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("shop.Request")
+@Label("API Request")
+@Category({"Shop API", "Web"})
+@Description("Controller invocation from handler mapping to completion")
+@StackTrace(false)
+public class RequestEvent extends Event {
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Product Category")
+    String category;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,85 @@
+package testtask.shift.shopapi.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrator {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final long LOCK_KEY = 0x73686f705f6d6967L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${shop.schema.migrations:classpath:db/migration/V*__*.sql}") Resource[] scripts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.migrations = Stream.of(scripts)
+                .map(Migration::of)
+                .sorted(Comparator.comparingInt(Migration::version))
+                .toList();
+    }
+
+    @PostConstruct
+    public void migrate() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migration ("
+                    + "version integer PRIMARY KEY, "
+                    + "description text NOT NULL, "
+                    + "applied_at timestamp with time zone NOT NULL DEFAULT now())");
+            Set<Integer> applied = new HashSet<>(jdbcTemplate.queryForList("SELECT version FROM schema_migration", Integer.class));
+            for (Migration migration : migrations) {
+                if (applied.contains(migration.version())) {
+                    continue;
+                }
+                long started = System.nanoTime();
+                jdbcTemplate.execute(migration.script());
+                jdbcTemplate.update("INSERT INTO schema_migration (version, description) VALUES (?, ?)",
+                        migration.version(), migration.description());
+                log.info("Applied schema migration V{} {} in {} ms", migration.version(), migration.description(),
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+        });
+    }
+
+    private record Migration(int version, String description, String script) {
+        static Migration of(Resource resource) {
+            Matcher name = FILE_NAME.matcher(String.valueOf(resource.getFilename()));
+            if (!name.matches()) {
+                throw new IllegalStateException("Schema migration name must look like V1__description.sql: " + resource);
+            }
+            try {
+                return new Migration(Integer.parseInt(name.group(1)), name.group(2),
+                        StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package testtask.shift.shopapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @SuppressWarnings("PMD")
 @MappedSuperclass
@@ -33,6 +35,12 @@ public abstract class Product implements Serializable {
     @Setter
     private Long numberOfProductsInStock;
 
+    @JsonIgnore
+    @Getter
+    @Setter
+    @Column(name = "modified_at", columnDefinition = "timestamp with time zone default now()", insertable = false, updatable = false)
+    private Instant modifiedAt;
+
     public Product() {
     }
 
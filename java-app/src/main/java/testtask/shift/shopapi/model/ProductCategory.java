@@ -0,0 +1,44 @@
+package testtask.shift.shopapi.model;
+
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.model.pc.PersonalComputer;
+
+import java.util.Arrays;
+
+public enum ProductCategory {
+    LAPTOPS("laptops", "laptops", Laptop.class),
+    MONITORS("monitors", "monitors", Monitor.class),
+    PERSONAL_COMPUTERS("personalComputers", "pcs", PersonalComputer.class),
+    HARD_DRIVES("hardDrives", "hdds", HardDrive.class);
+
+    private final String name;
+    private final String path;
+    private final Class<? extends Product> entityClass;
+
+    ProductCategory(String name, String path, Class<? extends Product> entityClass) {
+        this.name = name;
+        this.path = path;
+        this.entityClass = entityClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Class<? extends Product> getEntityClass() {
+        return entityClass;
+    }
+
+    public static ProductCategory fromName(String name) {
+        return Arrays.stream(values())
+                .filter(category -> category.name.equalsIgnoreCase(name) || category.path.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + name));
+    }
+}
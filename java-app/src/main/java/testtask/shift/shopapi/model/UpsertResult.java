@@ -0,0 +1,15 @@
+package testtask.shift.shopapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UpsertResult {
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long collapsedDuplicates;
+}
@@ -0,0 +1,18 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardinalityResponse {
+    private long distinctProducers;
+    private long distinctSeries;
+    private long producerCategoryPairs;
+    private double relativeStandardError;
+    private List<CategoryCardinality> categories;
+}
@@ -0,0 +1,14 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryCardinality {
+    private String category;
+    private long distinctProducers;
+    private long distinctSeries;
+}
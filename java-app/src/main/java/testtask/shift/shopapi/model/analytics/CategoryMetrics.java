@@ -15,4 +15,5 @@ public class CategoryMetrics {
     private long stockUnits;
     private BigDecimal averagePrice;
     private BigDecimal inventoryValue;
+    private PriceDistribution priceDistribution;
 }
@@ -0,0 +1,18 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryProducerBreakdown {
+    private String category;
+    private long totalProducers;
+    private List<ProducerMetrics> topProducers;
+    private long otherProducers;
+    private ProducerMetrics other;
+}
@@ -0,0 +1,31 @@
+package testtask.shift.shopapi.model.analytics;
+
+import java.util.Locale;
+
+public enum HistoryResolution {
+    MINUTE(60L),
+    HOUR(3_600L),
+    DAY(86_400L);
+
+    private final long seconds;
+
+    HistoryResolution(long seconds) {
+        this.seconds = seconds;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    public long bucketStart(long epochSecond) {
+        return epochSecond - Math.floorMod(epochSecond, seconds);
+    }
+
+    public static HistoryResolution fromValue(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown resolution: " + value);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceDistribution {
+    private long pricedProducts;
+    private BigDecimal medianPrice;
+    private BigDecimal p90Price;
+    private BigDecimal p99Price;
+    private double rankError;
+}
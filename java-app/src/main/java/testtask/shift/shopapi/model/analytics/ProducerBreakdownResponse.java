@@ -0,0 +1,15 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProducerBreakdownResponse {
+    private int limit;
+    private List<CategoryProducerBreakdown> categories;
+}
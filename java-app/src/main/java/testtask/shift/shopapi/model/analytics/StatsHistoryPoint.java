@@ -0,0 +1,19 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatsHistoryPoint {
+    private Instant timestamp;
+    private long samples;
+    private long totalProducts;
+    private long totalStockUnits;
+    private BigDecimal totalInventoryValue;
+}
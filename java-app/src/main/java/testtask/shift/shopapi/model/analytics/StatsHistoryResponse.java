@@ -0,0 +1,18 @@
+package testtask.shift.shopapi.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatsHistoryResponse {
+    private HistoryResolution resolution;
+    private Instant from;
+    private Instant to;
+    private List<StatsHistoryPoint> points;
+}
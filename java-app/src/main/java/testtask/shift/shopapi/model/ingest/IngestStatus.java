@@ -0,0 +1,7 @@
+package testtask.shift.shopapi.model.ingest;
+
+public enum IngestStatus {
+    QUEUED,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,22 @@
+package testtask.shift.shopapi.model.ingest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class IngestStatusResponse {
+    private String trackingId;
+    private String category;
+    private IngestStatus status;
+    private int items;
+    private List<Long> productIds;
+    private String error;
+    private Instant acceptedAt;
+    private Instant completedAt;
+}
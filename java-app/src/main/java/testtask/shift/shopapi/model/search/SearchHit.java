@@ -0,0 +1,16 @@
+package testtask.shift.shopapi.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHit {
+    private String category;
+    private long id;
+    private String producer;
+    private String seriesNumber;
+    private double score;
+}
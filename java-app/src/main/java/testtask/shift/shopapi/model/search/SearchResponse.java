@@ -0,0 +1,19 @@
+package testtask.shift.shopapi.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchResponse {
+    private String query;
+    private int page;
+    private int size;
+    private long totalMatches;
+    private boolean truncated;
+    private List<SearchHit> hits;
+}
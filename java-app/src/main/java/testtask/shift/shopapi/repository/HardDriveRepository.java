@@ -1,7 +1,15 @@
 package testtask.shift.shopapi.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import testtask.shift.shopapi.model.hdd.HardDrive;
 
+import java.util.List;
+
 public interface HardDriveRepository extends CrudRepository<HardDrive, Long> {
+    @RestResource(exported = false)
+    @Query(value = ProducerAggregateQueries.RANKED + "hard_drive" + ProducerAggregateQueries.TOP, nativeQuery = true)
+    List<ProducerAggregate> aggregateByProducer(@Param("limit") int limit);
 }
@@ -1,7 +1,15 @@
 package testtask.shift.shopapi.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import testtask.shift.shopapi.model.laptop.Laptop;
 
+import java.util.List;
+
 public interface LaptopRepository extends CrudRepository<Laptop, Long> {
+    @RestResource(exported = false)
+    @Query(value = ProducerAggregateQueries.RANKED + "laptop" + ProducerAggregateQueries.TOP, nativeQuery = true)
+    List<ProducerAggregate> aggregateByProducer(@Param("limit") int limit);
 }
@@ -1,7 +1,15 @@
 package testtask.shift.shopapi.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import testtask.shift.shopapi.model.monitor.Monitor;
 
+import java.util.List;
+
 public interface MonitorRepository extends CrudRepository<Monitor, Long> {
+    @RestResource(exported = false)
+    @Query(value = ProducerAggregateQueries.RANKED + "monitor" + ProducerAggregateQueries.TOP, nativeQuery = true)
+    List<ProducerAggregate> aggregateByProducer(@Param("limit") int limit);
 }
@@ -0,0 +1,23 @@
+package testtask.shift.shopapi.repository;
+
+import java.math.BigDecimal;
+
+public interface ProducerAggregate {
+    String getProducer();
+
+    Boolean getOther();
+
+    Long getProducers();
+
+    Long getTotalProducers();
+
+    Long getProducts();
+
+    Long getStockUnits();
+
+    BigDecimal getPriceTotal();
+
+    Long getPricedProducts();
+
+    BigDecimal getInventoryValue();
+}
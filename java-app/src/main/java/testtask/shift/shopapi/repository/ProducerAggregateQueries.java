@@ -0,0 +1,24 @@
+package testtask.shift.shopapi.repository;
+
+final class ProducerAggregateQueries {
+    static final String RANKED = "with ranked as (select per_producer.*, "
+            + "row_number() over (order by inventory_value desc, coalesce(stock_units, 0) desc, "
+            + "producer collate \"C\" nulls last) as producer_rank, "
+            + "count(*) over () as total_producers "
+            + "from (select producer, count(*) as products, "
+            + "sum(number_of_products_in_stock) as stock_units, "
+            + "sum(price) as price_total, count(price) as priced_products, "
+            + "coalesce(sum(case when number_of_products_in_stock > 0 then (price * number_of_products_in_stock) end), 0) as inventory_value "
+            + "from ";
+
+    static final String TOP = " group by producer) as per_producer) "
+            + "select min(producer) as \"producer\", min(producer_rank) > :limit as \"other\", "
+            + "count(*) as \"producers\", max(total_producers) as \"totalProducers\", "
+            + "cast(sum(products) as bigint) as \"products\", cast(sum(stock_units) as bigint) as \"stockUnits\", "
+            + "sum(price_total) as \"priceTotal\", cast(sum(priced_products) as bigint) as \"pricedProducts\", "
+            + "sum(inventory_value) as \"inventoryValue\" "
+            + "from ranked group by least(producer_rank, :limit + 1) order by min(producer_rank)";
+
+    private ProducerAggregateQueries() {
+    }
+}
@@ -0,0 +1,46 @@
+package testtask.shift.shopapi.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+public class ProductProjection implements JsonSerializable {
+    private final List<String> fields;
+    private final List<Object[]> rows;
+
+    public ProductProjection(List<String> fields, List<Object[]> rows) {
+        this.fields = List.copyOf(fields);
+        this.rows = rows;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartArray();
+        for (Object[] values : rows) {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.size(); i++) {
+                provider.defaultSerializeField(fields.get(i), values[i], generator);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, provider);
+    }
+}
@@ -0,0 +1,111 @@
+package testtask.shift.shopapi.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+public class ProductProjectionRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int maxRows;
+
+    public ProductProjectionRepository(ObjectMapper objectMapper,
+                                       @Value("${shop.catalog.scan-fetch-size:1000}") int fetchSize,
+                                       @Value("${shop.catalog.projection.max-rows:500000}") int maxRows) {
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+    }
+
+    @Transactional(readOnly = true)
+    public ProductProjection findAll(ProductCategory category, List<String> fields) {
+        Map<String, String> selected = resolve(category, fields);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<? extends Product> root = query.from(category.getEntityClass());
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (String attribute : selected.values()) {
+            selections.add(root.get(attribute));
+        }
+        query.multiselect(selections).orderBy(builder.asc(root.get("id")));
+
+        List<Object[]> rows = new ArrayList<>();
+        try (Stream<Tuple> tuples = entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setMaxResults(maxRows + 1)
+                .getResultStream()) {
+            tuples.forEach(tuple -> rows.add(tuple.toArray()));
+        }
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("More than " + maxRows + " " + category.getPath()
+                    + " to project; fields is limited to shop.catalog.projection.max-rows rows");
+        }
+        return new ProductProjection(new ArrayList<>(selected.keySet()), rows);
+    }
+
+    private Map<String, String> resolve(ProductCategory category, List<String> fields) {
+        Map<String, String> allowed = allowedProperties(category);
+        Map<String, String> selected = new LinkedHashMap<>();
+        Set<String> unknown = new TreeSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (allowed.containsKey(name)) {
+                selected.put(name, allowed.get(name));
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fields for " + category.getPath() + ": " + String.join(", ", unknown)
+                    + ". Allowed: " + String.join(", ", allowed.keySet()));
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one property");
+        }
+        return selected;
+    }
+
+    private Map<String, String> allowedProperties(ProductCategory category) {
+        Set<String> columns = entityManager.getMetamodel().entity(category.getEntityClass()).getSingularAttributes().stream()
+                .map(Attribute::getName)
+                .collect(Collectors.toSet());
+        Map<String, String> allowed = new TreeMap<>();
+        for (BeanPropertyDefinition property : objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(category.getEntityClass())).findProperties()) {
+            if (property.couldSerialize() && columns.contains(property.getInternalName())) {
+                allowed.put(property.getName(), property.getInternalName());
+            }
+        }
+        return allowed;
+    }
+}
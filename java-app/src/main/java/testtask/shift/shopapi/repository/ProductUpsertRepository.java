@@ -0,0 +1,113 @@
+package testtask.shift.shopapi.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.model.pc.PersonalComputer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Repository
+public class ProductUpsertRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final String idSequence;
+    private final int chunkSize;
+
+    public ProductUpsertRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${shop.upsert.id-sequence:hibernate_sequence}") String idSequence,
+                                   @Value("${shop.upsert.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idSequence = idSequence;
+        this.chunkSize = chunkSize;
+    }
+
+    public Outcome upsert(ProductCategory category, List<? extends Product> products) {
+        TableMapping mapping = TableMapping.of(category);
+        long inserted = 0L;
+        long updated = 0L;
+        List<Product> changed = new ArrayList<>();
+
+        for (int from = 0; from < products.size(); from += chunkSize) {
+            List<? extends Product> chunk = products.subList(from, Math.min(from + chunkSize, products.size()));
+            Map<String, Product> bySeries = new HashMap<>();
+            List<Object> args = new ArrayList<>(chunk.size() * 5);
+            for (Product product : chunk) {
+                bySeries.put(product.getSeriesNumber(), product);
+                args.add(product.getSeriesNumber());
+                args.add(product.getProducer());
+                args.add(product.getPrice());
+                args.add(product.getNumberOfProductsInStock());
+                args.add(mapping.extraValue().apply(product));
+            }
+
+            List<Row> rows = jdbcTemplate.query(mapping.sql(idSequence, chunk.size()),
+                    (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("series_number"), rs.getBoolean("inserted")),
+                    args.toArray());
+
+            for (Row row : rows) {
+                Product product = bySeries.get(row.seriesNumber());
+                product.setId(row.id());
+                changed.add(product);
+                if (row.inserted()) {
+                    inserted++;
+                } else {
+                    updated++;
+                }
+            }
+        }
+
+        return new Outcome(inserted, updated, products.size() - inserted - updated, changed);
+    }
+
+    public record Outcome(long inserted, long updated, long unchanged, List<Product> changed) {
+    }
+
+    private record Row(long id, String seriesNumber, boolean inserted) {
+    }
+
+    private record TableMapping(String table, String extraColumn, Function<Product, Object> extraValue) {
+        static TableMapping of(ProductCategory category) {
+            return switch (category) {
+                case LAPTOPS -> new TableMapping("laptop", "size",
+                        product -> ordinal(((Laptop) product).getSize()));
+                case MONITORS -> new TableMapping("monitor", "diagonal",
+                        product -> ((Monitor) product).getDiagonal());
+                case PERSONAL_COMPUTERS -> new TableMapping("personal_computer", "form_factor",
+                        product -> ordinal(((PersonalComputer) product).getFormFactor()));
+                case HARD_DRIVES -> new TableMapping("hard_drive", "capacity",
+                        product -> ((HardDrive) product).getCapacity());
+            };
+        }
+
+        String sql(String idSequence, int rows) {
+            String columns = "series_number, producer, price, number_of_products_in_stock, " + extraColumn;
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" AS t (id, ").append(columns)
+                    .append(") VALUES ");
+            for (int i = 0; i < rows; i++) {
+                sql.append(i == 0 ? "" : ", ").append("(nextval('").append(idSequence).append("'), ?, ?, ?, ?, ?)");
+            }
+            String updated = "producer, price, number_of_products_in_stock, " + extraColumn;
+            return sql.append(" ON CONFLICT (series_number) DO UPDATE SET ")
+                    .append("producer = EXCLUDED.producer, price = EXCLUDED.price, ")
+                    .append("number_of_products_in_stock = EXCLUDED.number_of_products_in_stock, ")
+                    .append(extraColumn).append(" = EXCLUDED.").append(extraColumn)
+                    .append(" WHERE (t.").append(updated.replace(", ", ", t.")).append(") IS DISTINCT FROM (EXCLUDED.")
+                    .append(updated.replace(", ", ", EXCLUDED.")).append(")")
+                    .append(" RETURNING t.id, t.series_number, (t.xmax = 0) AS inserted")
+                    .toString();
+        }
+
+        private static Integer ordinal(Enum<?> value) {
+            return value != null ? value.ordinal() : null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package testtask.shift.shopapi.repository;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+public final class SeriesNumberConstraint {
+    private static final String SUFFIX = "_series_number_key";
+
+    private SeriesNumberConstraint() {
+    }
+
+    public static boolean isViolatedBy(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().endsWith(SUFFIX);
+            }
+            if (cause instanceof SQLException sqlException) {
+                return isViolatedBy(sqlException);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isViolatedBy(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (next instanceof PSQLException psqlException) {
+                ServerErrorMessage message = psqlException.getServerErrorMessage();
+                if (message != null && message.getConstraint() != null) {
+                    return message.getConstraint().endsWith(SUFFIX);
+                }
+            }
+        }
+        return false;
+    }
+}
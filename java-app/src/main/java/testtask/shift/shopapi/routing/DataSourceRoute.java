@@ -0,0 +1,6 @@
+package testtask.shift.shopapi.routing;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,78 @@
+package testtask.shift.shopapi.routing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+
+    private final Map<DataSourceRoute, LongAdder> routedConnections = new EnumMap<>(DataSourceRoute.class);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+            routedConnections.put(route, new LongAdder());
+        }
+    }
+
+    public static DataSourceRoute currentRoute() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PRIMARY_FORCED.get()
+                ? DataSourceRoute.REPLICA
+                : DataSourceRoute.PRIMARY;
+    }
+
+    public static void setPrimaryForced(boolean forced) {
+        if (forced) {
+            PRIMARY_FORCED.set(true);
+        } else {
+            PRIMARY_FORCED.remove();
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get();
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean previous = PRIMARY_FORCED.get();
+        setPrimaryForced(true);
+        try {
+            return action.get();
+        } finally {
+            setPrimaryForced(previous);
+        }
+    }
+
+    public long getRoutedConnections(DataSourceRoute route) {
+        return routedConnections.get(route).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+            FunctionCounter.builder("shop.datasource.connections.routed", routedConnections.get(route), LongAdder::sum)
+                    .description("Connections handed out by the read/write routing data source")
+                    .tag("route", route.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRoute route = currentRoute();
+        routedConnections.get(route).increment();
+        return route;
+    }
+}
@@ -0,0 +1,66 @@
+package testtask.shift.shopapi.routing;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    static final String LAST_WRITE_COOKIE = "shop-last-write";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long windowMs;
+
+    public ReadYourWritesInterceptor(long windowMs) {
+        if (windowMs < 0) {
+            throw new IllegalArgumentException("shop.datasource.read-your-writes-ms must not be negative");
+        }
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            if (windowMs > 0 && request.getDispatcherType() == DispatcherType.REQUEST) {
+                Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, (windowMs + 999) / 1000));
+                response.addCookie(cookie);
+            }
+            ReadWriteRoutingDataSource.setPrimaryForced(true);
+        } else if (wroteRecently(request, now)) {
+            ReadWriteRoutingDataSource.setPrimaryForced(true);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadWriteRoutingDataSource.setPrimaryForced(false);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadWriteRoutingDataSource.setPrimaryForced(false);
+    }
+
+    private boolean wroteRecently(HttpServletRequest request, long now) {
+        Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            long lastWrite = Long.parseLong(cookie.getValue());
+            return now - lastWrite < windowMs;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package testtask.shift.shopapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+public class AsyncStatsService {
+    private static final Logger log = LoggerFactory.getLogger(AsyncStatsService.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Object> lastGoodResults = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+
+    public AsyncStatsService(@Value("${shop.stats.async.threads:4}") int threads,
+                             @Value("${shop.stats.async.queue-capacity:100}") int queueCapacity,
+                             @Value("${shop.stats.async.timeout-ms:5000}") long defaultTimeoutMs,
+                             @Value("${shop.stats.async.max-timeout-ms:20000}") long maxTimeoutMs) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "stats-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<StatsResult<T>> compute(String key, Long timeoutMs, Supplier<T> computation) {
+        long timeout = effectiveTimeout(timeoutMs);
+        boolean primary = ReadWriteRoutingDataSource.isPrimaryForced();
+        String flight = primary ? key + "@primary" : key;
+        Supplier<T> routed = primary ? () -> ReadWriteRoutingDataSource.onPrimary(computation) : computation;
+        CompletableFuture<T> started = new CompletableFuture<>();
+        CompletableFuture<T> work = (CompletableFuture<T>) inFlight.putIfAbsent(flight, started);
+        if (work == null) {
+            work = started;
+            try {
+                CompletableFuture.supplyAsync(routed, executor).whenComplete((value, error) -> {
+                    if (error == null) {
+                        lastGoodResults.put(key, value);
+                    }
+                    inFlight.remove(flight, started);
+                    if (error == null) {
+                        started.complete(value);
+                    } else {
+                        started.completeExceptionally(error);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(flight, started);
+                started.completeExceptionally(e);
+                return CompletableFuture.completedFuture(fallback(key, e));
+            }
+        }
+
+        return work.copy()
+                .orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .thenApply(value -> new StatsResult<>(value, false))
+                .exceptionally(error -> fallback(key, error instanceof CompletionException ? error.getCause() : error));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long effectiveTimeout(Long timeoutMs) {
+        if (timeoutMs == null) {
+            return defaultTimeoutMs;
+        }
+        if (timeoutMs < 1) {
+            throw new IllegalArgumentException("timeoutMs must be positive");
+        }
+        return Math.min(timeoutMs, maxTimeoutMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> StatsResult<T> fallback(String key, Throwable cause) {
+        T lastGood = (T) lastGoodResults.get(key);
+        String reason = cause instanceof TimeoutException ? "timed out"
+                : cause instanceof RejectedExecutionException ? "rejected" : "failed";
+        if (lastGood == null) {
+            throw new StatsUnavailableException("Stats computation " + reason + " and no previous result is available", cause);
+        }
+        log.warn("Stats computation '{}' {}, serving last good result", key, reason);
+        return new StatsResult<>(lastGood, true);
+    }
+}
@@ -0,0 +1,78 @@
+package testtask.shift.shopapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.CardinalityResponse;
+import testtask.shift.shopapi.model.analytics.CategoryCardinality;
+import testtask.shift.shopapi.service.sketch.HyperLogLog;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class CardinalityService implements CatalogIndex {
+    private final int precision;
+    private volatile Sketches sketches;
+
+    public CardinalityService(@Value("${shop.stats.cardinality.precision:14}") int precision) {
+        this.precision = precision;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        sketches = new Sketches(precision);
+    }
+
+    @Override
+    public void accept(ProductCategory category, Product product) {
+        Sketches current = sketches;
+        if (product.getProducer() != null) {
+            current.producers.get(category).add(product.getProducer());
+            current.producerCategoryPairs.add(category.getName() + '\u0000' + product.getProducer());
+        }
+        if (product.getSeriesNumber() != null) {
+            current.series.get(category).add(product.getSeriesNumber());
+        }
+    }
+
+    public CardinalityResponse getCardinality() {
+        Sketches current = sketches;
+        HyperLogLog allProducers = new HyperLogLog(precision);
+        HyperLogLog allSeries = new HyperLogLog(precision);
+        List<CategoryCardinality> categories = new ArrayList<>();
+
+        for (ProductCategory category : ProductCategory.values()) {
+            HyperLogLog producers = current.producers.get(category);
+            HyperLogLog series = current.series.get(category);
+            allProducers.merge(producers);
+            allSeries.merge(series);
+            categories.add(new CategoryCardinality(category.getName(), producers.estimate(), series.estimate()));
+        }
+
+        return new CardinalityResponse(
+                allProducers.estimate(),
+                allSeries.estimate(),
+                current.producerCategoryPairs.estimate(),
+                allProducers.getRelativeStandardError(),
+                categories);
+    }
+
+    private static final class Sketches {
+        private final Map<ProductCategory, HyperLogLog> producers = new EnumMap<>(ProductCategory.class);
+        private final Map<ProductCategory, HyperLogLog> series = new EnumMap<>(ProductCategory.class);
+        private final HyperLogLog producerCategoryPairs;
+
+        private Sketches(int precision) {
+            for (ProductCategory category : ProductCategory.values()) {
+                producers.put(category, new HyperLogLog(precision));
+                series.put(category, new HyperLogLog(precision));
+            }
+            producerCategoryPairs = new HyperLogLog(precision);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package testtask.shift.shopapi.service;
+
+public record CatalogFlushEvent(String reason) {
+}
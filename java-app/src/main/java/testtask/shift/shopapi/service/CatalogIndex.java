@@ -0,0 +1,10 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+
+public interface CatalogIndex {
+    void reset();
+
+    void accept(ProductCategory category, Product product);
+}
@@ -0,0 +1,55 @@
+package testtask.shift.shopapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import java.util.List;
+
+@Component
+public class CatalogIndexBootstrap {
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexBootstrap.class);
+
+    private final CatalogScanner catalogScanner;
+    private final List<CatalogIndex> indexes;
+    private final ObjectProvider<CatalogSnapshotStore> snapshotStore;
+
+    public CatalogIndexBootstrap(CatalogScanner catalogScanner, List<CatalogIndex> indexes,
+                                 ObjectProvider<CatalogSnapshotStore> snapshotStore) {
+        this.catalogScanner = catalogScanner;
+        this.indexes = indexes;
+        this.snapshotStore = snapshotStore;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogFlushEvent.class})
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuild() {
+        long started = System.nanoTime();
+        indexes.forEach(CatalogIndex::reset);
+
+        CatalogSnapshotStore store = snapshotStore.getIfAvailable();
+        long rows = 0L;
+        if (store != null) {
+            rows = store.restore((category, product) -> indexes.forEach(index -> index.accept(category, product)));
+        } else {
+            for (ProductCategory category : ProductCategory.values()) {
+                rows += catalogScanner.scan(category, product -> indexes.forEach(index -> index.accept(category, product)));
+            }
+        }
+
+        log.info("Seeded {} catalog indexes from {} rows in {} ms",
+                indexes.size(), rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductSaved(ProductSavedEvent event) {
+        indexes.forEach(index -> index.accept(event.category(), event.product()));
+    }
+}
@@ -0,0 +1,76 @@
+package testtask.shift.shopapi.service;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class CatalogScanner {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int fetchSize;
+
+    public CatalogScanner(@Value("${shop.catalog.scan-fetch-size:1000}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long scan(ProductCategory category, Consumer<Product> consumer) {
+        String jpql = "select p from " + category.getEntityClass().getSimpleName() + " p";
+        return stream(entityManager.createQuery(jpql, category.getEntityClass()), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public long scanModifiedSince(ProductCategory category, Instant since, Consumer<Product> consumer) {
+        String jpql = "select p from " + category.getEntityClass().getSimpleName() + " p where p.modifiedAt >= :since";
+        return stream(entityManager.createQuery(jpql, category.getEntityClass()).setParameter("since", since), consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public long count(ProductCategory category) {
+        String jpql = "select count(p) from " + category.getEntityClass().getSimpleName() + " p";
+        return entityManager.createQuery(jpql, Long.class).getSingleResult();
+    }
+
+    @Transactional(readOnly = true)
+    public Long firstId(ProductCategory category) {
+        String jpql = "select min(p.id) from " + category.getEntityClass().getSimpleName() + " p";
+        return entityManager.createQuery(jpql, Long.class).getSingleResult();
+    }
+
+    @Transactional(readOnly = true)
+    public Instant databaseTime() {
+        return ((Timestamp) entityManager.createNativeQuery("select now()")
+                .getSingleResult()).toInstant();
+    }
+
+    private long stream(TypedQuery<? extends Product> query, Consumer<Product> consumer) {
+        long rows = 0L;
+        try (Stream<? extends Product> products = query
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()) {
+            Iterator<? extends Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                consumer.accept(product);
+                entityManager.detach(product);
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,200 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.model.pc.FormFactor;
+import testtask.shift.shopapi.model.pc.PersonalComputer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+class CatalogSnapshotFile {
+    static final int HEADER_BYTES = 128;
+    static final int ROW_BYTES = 48;
+
+    static final int MAGIC = 0x53435331;
+    static final int FORMAT = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int FORMAT_OFFSET = 4;
+    static final int VERSION_OFFSET = 8;
+    static final int ROW_COUNTS_OFFSET = 16;
+    static final int DICTIONARY_SIZE_OFFSET = 48;
+    static final int DICTIONARY_DATA_OFFSET = 56;
+    static final int DICTIONARY_INDEX_OFFSET = 64;
+    static final int LENGTH_OFFSET = 72;
+    static final int CHECKSUM_OFFSET = 80;
+
+    static final int ID = 0;
+    static final int SERIES_NUMBER = 8;
+    static final int PRODUCER = 12;
+    static final int PRICE_UNSCALED = 16;
+    static final int PRICE_SCALE = 24;
+    static final int STOCK = 32;
+    static final int EXTRA = 40;
+
+    static final int NULL_REF = -1;
+    static final int NULL_SCALE = Integer.MIN_VALUE;
+    static final long NULL_STOCK = Long.MIN_VALUE;
+    static final long NULL_ORDINAL = -1L;
+
+    private static final LaptopSize[] LAPTOP_SIZES = LaptopSize.values();
+    private static final FormFactor[] FORM_FACTORS = FormFactor.values();
+
+    private final MappedByteBuffer buffer;
+    private final Instant version;
+    private final int[] rowOffsets = new int[ProductCategory.values().length];
+    private final long[] rowCounts = new long[ProductCategory.values().length];
+    private final int dictionarySize;
+    private final int dictionaryData;
+    private final int dictionaryIndex;
+
+    private CatalogSnapshotFile(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        if (buffer.getInt(FORMAT_OFFSET) != FORMAT) {
+            throw new IOException("Unsupported catalog snapshot format " + buffer.getInt(FORMAT_OFFSET));
+        }
+        if (buffer.getLong(LENGTH_OFFSET) != buffer.capacity()) {
+            throw new IOException("Catalog snapshot is truncated");
+        }
+        this.version = Instant.ofEpochMilli(buffer.getLong(VERSION_OFFSET));
+
+        long offset = HEADER_BYTES;
+        for (ProductCategory category : ProductCategory.values()) {
+            long rows = buffer.getLong(ROW_COUNTS_OFFSET + category.ordinal() * Long.BYTES);
+            if (rows < 0 || offset + rows * ROW_BYTES > buffer.capacity()) {
+                throw new IOException("Catalog snapshot row counts do not match its size");
+            }
+            rowOffsets[category.ordinal()] = (int) offset;
+            rowCounts[category.ordinal()] = rows;
+            offset += rows * ROW_BYTES;
+        }
+
+        long size = buffer.getLong(DICTIONARY_SIZE_OFFSET);
+        long data = buffer.getLong(DICTIONARY_DATA_OFFSET);
+        long index = buffer.getLong(DICTIONARY_INDEX_OFFSET);
+        if (data != offset || size < 0 || index < data || index + (size + 1) * Long.BYTES != buffer.capacity()) {
+            throw new IOException("Catalog snapshot dictionary does not match its size");
+        }
+        this.dictionarySize = (int) size;
+        this.dictionaryData = (int) data;
+        this.dictionaryIndex = (int) index;
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        if (checksum.getValue() != buffer.getLong(CHECKSUM_OFFSET)) {
+            throw new IOException("Catalog snapshot checksum mismatch");
+        }
+    }
+
+    static CatalogSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot is larger than 2 GB");
+            }
+            return new CatalogSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    Instant version() {
+        return version;
+    }
+
+    long size() {
+        return buffer.capacity();
+    }
+
+    long rowCount(ProductCategory category) {
+        return rowCounts[category.ordinal()];
+    }
+
+    long id(ProductCategory category, long row) {
+        return buffer.getLong(position(category, row) + ID);
+    }
+
+    Product product(ProductCategory category, long row) {
+        int position = position(category, row);
+        Long id = buffer.getLong(position + ID);
+        String seriesNumber = string(buffer.getInt(position + SERIES_NUMBER));
+        String producer = string(buffer.getInt(position + PRODUCER));
+        int scale = buffer.getInt(position + PRICE_SCALE);
+        BigDecimal price = scale == NULL_SCALE ? null : BigDecimal.valueOf(buffer.getLong(position + PRICE_UNSCALED), scale);
+        long stockValue = buffer.getLong(position + STOCK);
+        Long stock = stockValue == NULL_STOCK ? null : stockValue;
+        long extra = buffer.getLong(position + EXTRA);
+        return switch (category) {
+            case LAPTOPS -> new Laptop(id, seriesNumber, producer, price, stock,
+                    extra == NULL_ORDINAL ? null : LAPTOP_SIZES[(int) extra]);
+            case MONITORS -> new Monitor(id, seriesNumber, producer, price, stock, Double.longBitsToDouble(extra));
+            case PERSONAL_COMPUTERS -> new PersonalComputer(id, seriesNumber, producer, price, stock,
+                    extra == NULL_ORDINAL ? null : FORM_FACTORS[(int) extra]);
+            case HARD_DRIVES -> new HardDrive(id, seriesNumber, producer, price, stock, Double.longBitsToDouble(extra));
+        };
+    }
+
+    static void encode(ByteBuffer row, ProductCategory category, Product product, int seriesNumber, int producer) {
+        row.putLong(product.getId());
+        row.putInt(seriesNumber);
+        row.putInt(producer);
+        BigDecimal price = product.getPrice();
+        if (price == null) {
+            row.putLong(0L).putInt(NULL_SCALE).putInt(0);
+        } else {
+            BigInteger unscaled = price.unscaledValue();
+            if (unscaled.bitLength() >= Long.SIZE) {
+                throw new IllegalArgumentException("Price " + price + " does not fit into a catalog snapshot row");
+            }
+            row.putLong(unscaled.longValue()).putInt(price.scale()).putInt(0);
+        }
+        Long stock = product.getNumberOfProductsInStock();
+        row.putLong(stock != null ? stock : NULL_STOCK);
+        row.putLong(switch (category) {
+            case LAPTOPS -> ordinal(((Laptop) product).getSize());
+            case MONITORS -> Double.doubleToRawLongBits(((Monitor) product).getDiagonal());
+            case PERSONAL_COMPUTERS -> ordinal(((PersonalComputer) product).getFormFactor());
+            case HARD_DRIVES -> Double.doubleToRawLongBits(((HardDrive) product).getCapacity());
+        });
+    }
+
+    private int position(ProductCategory category, long row) {
+        if (row < 0 || row >= rowCounts[category.ordinal()]) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + category.getName());
+        }
+        return rowOffsets[category.ordinal()] + (int) row * ROW_BYTES;
+    }
+
+    private String string(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        if (ref < 0 || ref >= dictionarySize) {
+            throw new IndexOutOfBoundsException("Dictionary entry " + ref);
+        }
+        int start = dictionaryData + (int) buffer.getLong(dictionaryIndex + ref * Long.BYTES);
+        int end = dictionaryData + (int) buffer.getLong(dictionaryIndex + (ref + 1) * Long.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long ordinal(Enum<?> value) {
+        return value != null ? value.ordinal() : NULL_ORDINAL;
+    }
+}
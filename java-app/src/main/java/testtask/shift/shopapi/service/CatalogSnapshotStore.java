@@ -0,0 +1,219 @@
+package testtask.shift.shopapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+@Service
+@ConditionalOnProperty(name = "shop.catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshotStore {
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final CatalogScanner catalogScanner;
+    private final Path file;
+    private final Duration overlap;
+    private final Duration maxAge;
+    private final Timer snapshotRestores;
+    private final Timer databaseRestores;
+    private final Counter caughtUpRows;
+    private final Counter fallbacks;
+
+    private volatile CatalogSnapshotFile current;
+
+    public CatalogSnapshotStore(CatalogScanner catalogScanner,
+                                MeterRegistry meterRegistry,
+                                @Value("${shop.catalog.snapshot.file:catalog.snapshot}") String file,
+                                @Value("${shop.catalog.snapshot.overlap-ms:60000}") long overlapMs,
+                                @Value("${shop.catalog.snapshot.max-age-ms:86400000}") long maxAgeMs) {
+        this.catalogScanner = catalogScanner;
+        this.file = Path.of(file);
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+
+        Gauge.builder("shop.catalog.snapshot.bytes", this, store -> store.current != null ? store.current.size() : 0)
+                .description("Size of the memory-mapped catalog snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.snapshotRestores = Timer.builder("shop.catalog.snapshot.restore")
+                .description("Time to replay the catalog into the in-memory indexes")
+                .tag("source", "snapshot")
+                .register(meterRegistry);
+        this.databaseRestores = Timer.builder("shop.catalog.snapshot.restore")
+                .description("Time to replay the catalog into the in-memory indexes")
+                .tag("source", "database")
+                .register(meterRegistry);
+        this.caughtUpRows = meterRegistry.counter("shop.catalog.snapshot.rows.caught.up");
+        this.fallbacks = meterRegistry.counter("shop.catalog.snapshot.fallbacks");
+    }
+
+    public synchronized long restore(BiConsumer<ProductCategory, Product> sink) {
+        long started = System.nanoTime();
+        Instant version = catalogScanner.databaseTime();
+        CatalogSnapshotFile previous = open(version);
+
+        long rows = 0L;
+        long caughtUp = 0L;
+        try (SnapshotSink output = new SnapshotSink(sink, file, version)) {
+            for (ProductCategory category : ProductCategory.values()) {
+                if (previous != null) {
+                    long changed = catchUp(previous, category, output);
+                    if (changed >= 0) {
+                        caughtUp += changed;
+                        continue;
+                    }
+                    fallbacks.increment();
+                    log.info("Catalog snapshot of {} does not add up, scanning the table", category.getName());
+                }
+                catalogScanner.scan(category, product -> output.accept(category, product));
+            }
+            rows = output.rows;
+            if (output.commit()) {
+                current = CatalogSnapshotFile.open(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not map the catalog snapshot {}", file, e);
+        }
+
+        long elapsed = System.nanoTime() - started;
+        (previous != null ? snapshotRestores : databaseRestores).record(Duration.ofNanos(elapsed));
+        caughtUpRows.increment(caughtUp);
+        log.info("Replayed {} catalog rows from the {} ({} caught up) in {} ms",
+                rows, previous != null ? "snapshot" : "database", caughtUp, elapsed / 1_000_000);
+        return rows;
+    }
+
+    @Scheduled(fixedDelayString = "${shop.catalog.snapshot.interval-ms:600000}",
+            initialDelayString = "${shop.catalog.snapshot.interval-ms:600000}")
+    public void refresh() {
+        try {
+            restore((category, product) -> {
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh the catalog snapshot", e);
+        }
+    }
+
+    private long catchUp(CatalogSnapshotFile previous, ProductCategory category, SnapshotSink output) {
+        long expected = catalogScanner.count(category);
+        Map<Long, Product> changed = new HashMap<>();
+        catalogScanner.scanModifiedSince(category, previous.version().minus(overlap),
+                product -> changed.put(product.getId(), product));
+
+        long snapshotRows = previous.rowCount(category);
+        long replaced = 0L;
+        for (long row = 0; row < snapshotRows; row++) {
+            if (changed.containsKey(previous.id(category, row))) {
+                replaced++;
+            }
+        }
+        if (snapshotRows - replaced + changed.size() != expected) {
+            return -1L;
+        }
+
+        for (long row = 0; row < snapshotRows; row++) {
+            if (!changed.containsKey(previous.id(category, row))) {
+                output.accept(category, previous.product(category, row));
+            }
+        }
+        changed.values().forEach(product -> output.accept(category, product));
+        return changed.size();
+    }
+
+    private CatalogSnapshotFile open(Instant now) {
+        CatalogSnapshotFile snapshot = current;
+        if (snapshot == null) {
+            if (!Files.exists(file)) {
+                log.info("No catalog snapshot at {}, the catalog will be read from the database", file);
+                return null;
+            }
+            try {
+                snapshot = CatalogSnapshotFile.open(file);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+                return null;
+            }
+        }
+        if (snapshot.version().isAfter(now) || snapshot.version().isBefore(now.minus(maxAge))) {
+            log.info("Ignoring catalog snapshot {} taken at {}", file, snapshot.version());
+            return null;
+        }
+        return snapshot;
+    }
+
+    private static class SnapshotSink implements AutoCloseable {
+        private final BiConsumer<ProductCategory, Product> sink;
+        private final Path file;
+        private CatalogSnapshotWriter writer;
+        private long rows;
+
+        SnapshotSink(BiConsumer<ProductCategory, Product> sink, Path file, Instant version) {
+            this.sink = sink;
+            this.file = file;
+            try {
+                this.writer = CatalogSnapshotWriter.create(file, version);
+            } catch (IOException e) {
+                log.warn("Cannot write the catalog snapshot {}", file, e);
+            }
+        }
+
+        void accept(ProductCategory category, Product product) {
+            sink.accept(category, product);
+            rows++;
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.append(category, product);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Giving up on the catalog snapshot {}", file, e);
+                close();
+            }
+        }
+
+        boolean commit() {
+            if (writer == null) {
+                return false;
+            }
+            try {
+                writer.commit();
+                return true;
+            } catch (IOException e) {
+                log.warn("Cannot write the catalog snapshot {}", file, e);
+                return false;
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Cannot remove temporary files of the catalog snapshot {}", file, e);
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.CHECKSUM_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.DICTIONARY_DATA_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.DICTIONARY_INDEX_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.DICTIONARY_SIZE_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.FORMAT;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.FORMAT_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.HEADER_BYTES;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.LENGTH_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.MAGIC;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.MAGIC_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.NULL_REF;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.ROW_BYTES;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.ROW_COUNTS_OFFSET;
+import static testtask.shift.shopapi.service.CatalogSnapshotFile.VERSION_OFFSET;
+
+class CatalogSnapshotWriter implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path target;
+    private final Path rowsFile;
+    private final Path dictionaryFile;
+    private final FileChannel rows;
+    private final FileChannel dictionary;
+    private final ByteBuffer rowBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES / ROW_BYTES * ROW_BYTES);
+    private final ByteBuffer stringBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C checksum = new CRC32C();
+    private final long[] rowCounts = new long[ProductCategory.values().length];
+    private final Map<String, Integer> producers = new HashMap<>();
+    private final Instant version;
+    private long[] dictionaryIndex = new long[1024];
+    private int dictionarySize;
+    private long dictionaryBytes;
+    private int lastCategory;
+    private boolean closed;
+
+    private CatalogSnapshotWriter(Path target, Instant version) throws IOException {
+        this.target = target.toAbsolutePath();
+        this.version = version;
+        Path directory = this.target.getParent();
+        Files.createDirectories(directory);
+        this.rowsFile = Files.createTempFile(directory, this.target.getFileName().toString(), ".tmp");
+        this.dictionaryFile = Files.createTempFile(directory, this.target.getFileName().toString(), ".dict.tmp");
+        this.rows = FileChannel.open(rowsFile, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        this.dictionary = FileChannel.open(dictionaryFile, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        rows.position(HEADER_BYTES);
+    }
+
+    static CatalogSnapshotWriter create(Path target, Instant version) throws IOException {
+        return new CatalogSnapshotWriter(target, version);
+    }
+
+    void append(ProductCategory category, Product product) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Catalog snapshot writer is closed");
+        }
+        if (category.ordinal() < lastCategory) {
+            throw new IllegalStateException("Rows must be appended in category order");
+        }
+        if (product.getId() == null) {
+            throw new IllegalArgumentException("Only persisted products can be written to a catalog snapshot");
+        }
+        lastCategory = category.ordinal();
+        int seriesNumber = string(product.getSeriesNumber());
+        int producer = NULL_REF;
+        if (product.getProducer() != null) {
+            Integer known = producers.get(product.getProducer());
+            producer = known != null ? known : string(product.getProducer());
+            producers.putIfAbsent(product.getProducer(), producer);
+        }
+        if (rowBuffer.remaining() < ROW_BYTES) {
+            flushRows();
+        }
+        CatalogSnapshotFile.encode(rowBuffer, category, product, seriesNumber, producer);
+        rowCounts[category.ordinal()]++;
+    }
+
+    void commit() throws IOException {
+        flushRows();
+        flushStrings();
+        long dictionaryData = rows.position();
+
+        ByteBuffer copy = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        dictionary.position(0);
+        while (dictionary.read(copy) > 0) {
+            copy.flip();
+            checksum.update(copy.duplicate());
+            writeFully(rows, copy);
+            copy.clear();
+        }
+
+        long dictionaryIndexPosition = rows.position();
+        ByteBuffer index = ByteBuffer.allocate((dictionarySize + 1) * Long.BYTES);
+        for (int i = 0; i < dictionarySize; i++) {
+            index.putLong(dictionaryIndex[i]);
+        }
+        index.putLong(dictionaryBytes).flip();
+        checksum.update(index.duplicate());
+        writeFully(rows, index);
+
+        long length = rows.position();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot is larger than 2 GB");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC_OFFSET, MAGIC)
+                .putInt(FORMAT_OFFSET, FORMAT)
+                .putLong(VERSION_OFFSET, version.toEpochMilli())
+                .putLong(DICTIONARY_SIZE_OFFSET, dictionarySize)
+                .putLong(DICTIONARY_DATA_OFFSET, dictionaryData)
+                .putLong(DICTIONARY_INDEX_OFFSET, dictionaryIndexPosition)
+                .putLong(LENGTH_OFFSET, length)
+                .putLong(CHECKSUM_OFFSET, checksum.getValue());
+        for (ProductCategory category : ProductCategory.values()) {
+            header.putLong(ROW_COUNTS_OFFSET + category.ordinal() * Long.BYTES, rowCounts[category.ordinal()]);
+        }
+        rows.position(0);
+        writeFully(rows, header);
+        rows.force(true);
+        rows.close();
+        Files.move(rowsFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (rows; dictionary) {
+            Files.deleteIfExists(dictionaryFile);
+        } finally {
+            Files.deleteIfExists(rowsFile);
+        }
+    }
+
+    private int string(String value) throws IOException {
+        if (value == null) {
+            return NULL_REF;
+        }
+        if (dictionarySize == dictionaryIndex.length) {
+            dictionaryIndex = Arrays.copyOf(dictionaryIndex, dictionarySize * 2);
+        }
+        dictionaryIndex[dictionarySize] = dictionaryBytes;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (stringBuffer.remaining() < bytes.length) {
+            flushStrings();
+        }
+        if (bytes.length > stringBuffer.capacity()) {
+            writeFully(dictionary, ByteBuffer.wrap(bytes));
+        } else {
+            stringBuffer.put(bytes);
+        }
+        dictionaryBytes += bytes.length;
+        return dictionarySize++;
+    }
+
+    private void flushRows() throws IOException {
+        rowBuffer.flip();
+        checksum.update(rowBuffer.duplicate());
+        writeFully(rows, rowBuffer);
+        rowBuffer.clear();
+    }
+
+    private void flushStrings() throws IOException {
+        stringBuffer.flip();
+        writeFully(dictionary, stringBuffer);
+        stringBuffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -2,14 +2,22 @@ package testtask.shift.shopapi.service;
 
 import com.sun.istack.NotNull;
 import org.springframework.validation.annotation.Validated;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.repository.ProductProjection;
+
+import java.util.List;
 
 @Validated
 public interface HardDriveService {
     @NotNull
     Iterable<HardDrive> getAllHardDrives();
 
+    ProductProjection getAllHardDrives(List<String> fields);
+
     HardDrive getHardDrive(long id);
 
     HardDrive save(HardDrive hardDrive);
+
+    UpsertResult upsert(List<HardDrive> hardDrives);
 }
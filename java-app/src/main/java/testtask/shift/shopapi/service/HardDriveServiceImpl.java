@@ -1,26 +1,50 @@
 package testtask.shift.shopapi.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.hdd.HardDrive;
 import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.ProductProjectionRepository;
+
+import java.util.List;
 
 @Service
 @Transactional
 public class HardDriveServiceImpl implements HardDriveService {
     private final HardDriveRepository hardDriveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductUpsertService productUpsertService;
+    private final ProductProjectionRepository productProjectionRepository;
 
-    public HardDriveServiceImpl(HardDriveRepository hardDriveRepository) {
+    public HardDriveServiceImpl(HardDriveRepository hardDriveRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                ProductUpsertService productUpsertService,
+                             ProductProjectionRepository productProjectionRepository) {
         this.hardDriveRepository = hardDriveRepository;
+        this.eventPublisher = eventPublisher;
+        this.productUpsertService = productUpsertService;
+        this.productProjectionRepository = productProjectionRepository;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<HardDrive> getAllHardDrives() {
         return hardDriveRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ProductProjection getAllHardDrives(List<String> fields) {
+        return productProjectionRepository.findAll(ProductCategory.HARD_DRIVES, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public HardDrive getHardDrive(long id) {
         return hardDriveRepository
                 .findById(id)
@@ -29,6 +53,13 @@ public class HardDriveServiceImpl implements HardDriveService {
 
     @Override
     public HardDrive save(HardDrive hardDrive) {
-        return hardDriveRepository.save(hardDrive);
+        HardDrive saved = hardDriveRepository.save(hardDrive);
+        eventPublisher.publishEvent(new ProductSavedEvent(ProductCategory.HARD_DRIVES, saved));
+        return saved;
+    }
+
+    @Override
+    public UpsertResult upsert(List<HardDrive> hardDrives) {
+        return productUpsertService.upsert(ProductCategory.HARD_DRIVES, hardDrives);
     }
 }
@@ -0,0 +1,7 @@
+package testtask.shift.shopapi.service;
+
+public class IngestQueueFullException extends RuntimeException {
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.ingest.IngestStatusResponse;
+
+import java.util.List;
+
+public interface IngestService {
+    IngestStatusResponse submit(ProductCategory category, List<? extends Product> products);
+
+    IngestStatusResponse getStatus(String trackingId);
+}
@@ -0,0 +1,310 @@
+package testtask.shift.shopapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.ingest.IngestStatus;
+import testtask.shift.shopapi.model.ingest.IngestStatusResponse;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.PersonalComputerRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@ConditionalOnProperty(name = "shop.ingest.enabled", havingValue = "true")
+public class IngestServiceImpl implements IngestService, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(IngestServiceImpl.class);
+
+    private final Map<ProductCategory, CrudRepository<? extends Product, Long>> repositories = new EnumMap<>(ProductCategory.class);
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<IngestJob> queue;
+    private final AtomicInteger queuedItems = new AtomicInteger();
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finishedJobs = new ConcurrentLinkedQueue<>();
+    private final int flushSize;
+    private final int maxItemsPerRequest;
+    private final int statusRetention;
+    private final long drainTimeoutMs;
+    private final Timer flushTimer;
+    private final Counter acceptedItems;
+    private final Counter rejectedRequests;
+    private final Counter failedItems;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public IngestServiceImpl(LaptopRepository laptopRepository,
+                             MonitorRepository monitorRepository,
+                             PersonalComputerRepository personalComputerRepository,
+                             HardDriveRepository hardDriveRepository,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${shop.ingest.queue-capacity:1000}") int queueCapacity,
+                             @Value("${shop.ingest.flush-size:500}") int flushSize,
+                             @Value("${shop.ingest.max-items-per-request:1000}") int maxItemsPerRequest,
+                             @Value("${shop.ingest.status-retention:10000}") int statusRetention,
+                             @Value("${shop.ingest.drain-timeout-ms:30000}") long drainTimeoutMs) {
+        repositories.put(ProductCategory.LAPTOPS, laptopRepository);
+        repositories.put(ProductCategory.MONITORS, monitorRepository);
+        repositories.put(ProductCategory.PERSONAL_COMPUTERS, personalComputerRepository);
+        repositories.put(ProductCategory.HARD_DRIVES, hardDriveRepository);
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.maxItemsPerRequest = maxItemsPerRequest;
+        this.statusRetention = statusRetention;
+        this.drainTimeoutMs = drainTimeoutMs;
+
+        Gauge.builder("shop.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Ingest requests waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("shop.ingest.queue.items", queuedItems, AtomicInteger::get)
+                .description("Products waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("shop.ingest.flush")
+                .description("Latency of one batch flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.acceptedItems = meterRegistry.counter("shop.ingest.items.accepted");
+        this.rejectedRequests = meterRegistry.counter("shop.ingest.requests.rejected");
+        this.failedItems = meterRegistry.counter("shop.ingest.items.failed");
+    }
+
+    @Override
+    public IngestStatusResponse submit(ProductCategory category, List<? extends Product> products) {
+        if (products.isEmpty()) {
+            throw new IllegalArgumentException("At least one product is required");
+        }
+        if (products.size() > maxItemsPerRequest) {
+            throw new IllegalArgumentException("At most " + maxItemsPerRequest + " products are accepted per request");
+        }
+        products.forEach(this::validate);
+
+        if (!running) {
+            rejectedRequests.increment();
+            throw new IngestQueueFullException("Ingest is shutting down");
+        }
+
+        IngestJob job = new IngestJob(UUID.randomUUID().toString(), category, List.copyOf(products));
+        IngestStatusResponse accepted = job.toResponse();
+        jobs.put(job.trackingId, job);
+        queuedItems.addAndGet(job.products.size());
+        if (!queue.offer(job)) {
+            jobs.remove(job.trackingId);
+            queuedItems.addAndGet(-job.products.size());
+            rejectedRequests.increment();
+            throw new IngestQueueFullException("Ingest queue is full");
+        }
+        if (!running && queue.remove(job)) {
+            jobs.remove(job.trackingId);
+            queuedItems.addAndGet(-job.products.size());
+            rejectedRequests.increment();
+            throw new IngestQueueFullException("Ingest is shutting down");
+        }
+        acceptedItems.increment(job.products.size());
+        return accepted;
+    }
+
+    @Override
+    public IngestStatusResponse getStatus(String trackingId) {
+        IngestJob job = jobs.get(trackingId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Ingest request not found");
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            writer.join(drainTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Ingest writer is still draining {} requests after {} ms", queue.size(), drainTimeoutMs);
+            return;
+        }
+        List<IngestJob> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (IngestJob job : abandoned) {
+            queuedItems.addAndGet(-job.products.size());
+            failedItems.increment(job.products.size());
+            job.complete(IngestStatus.FAILED, List.of(), "Ingest stopped before the request was written");
+            retain(job.trackingId);
+        }
+        if (!abandoned.isEmpty()) {
+            log.warn("Ingest writer stopped with {} requests still queued", abandoned.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestJob first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<IngestJob> batch = new ArrayList<>();
+                batch.add(first);
+                int items = first.products.size();
+                while (items < flushSize) {
+                    IngestJob next = queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    items += next.products.size();
+                }
+                queuedItems.addAndGet(-items);
+                flushTimer.record(() -> flush(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected ingest writer failure", e);
+            }
+        }
+    }
+
+    private void flush(List<IngestJob> batch) {
+        Map<IngestJob, List<Long>> savedIds = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(job -> savedIds.put(job, write(job))));
+            batch.forEach(job -> job.complete(IngestStatus.COMPLETED, savedIds.get(job), null));
+        } catch (RuntimeException batchFailure) {
+            for (IngestJob job : batch) {
+                job.products.forEach(product -> product.setId(null));
+                try {
+                    job.complete(IngestStatus.COMPLETED, transactionTemplate.execute(status -> write(job)), null);
+                } catch (RuntimeException e) {
+                    failedItems.increment(job.products.size());
+                    job.complete(IngestStatus.FAILED, List.of(), e.getMessage());
+                }
+            }
+        }
+        batch.forEach(job -> retain(job.trackingId));
+    }
+
+    private List<Long> write(IngestJob job) {
+        List<Long> ids = new ArrayList<>(job.products.size());
+        for (Product saved : saveAll(repositories.get(job.category), job.products)) {
+            eventPublisher.publishEvent(new ProductSavedEvent(job.category, saved));
+            ids.add(saved.getId());
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Product> Iterable<T> saveAll(CrudRepository<T, Long> repository, List<? extends Product> products) {
+        return repository.saveAll((List<T>) products);
+    }
+
+    private void retain(String trackingId) {
+        finishedJobs.add(trackingId);
+        while (finishedJobs.size() > statusRetention) {
+            String evicted = finishedJobs.poll();
+            if (evicted != null) {
+                jobs.remove(evicted);
+            }
+        }
+    }
+
+    private void validate(Product product) {
+        if (product.getId() != null) {
+            throw new IllegalArgumentException("Ingested products must not have an id");
+        }
+        if (product.getSeriesNumber() == null || product.getSeriesNumber().isBlank()) {
+            throw new IllegalArgumentException("seriesNumber is required");
+        }
+        if (product.getProducer() == null || product.getProducer().isBlank()) {
+            throw new IllegalArgumentException("producer is required");
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("price must be a non-negative number");
+        }
+        if (product.getNumberOfProductsInStock() != null && product.getNumberOfProductsInStock() < 0) {
+            throw new IllegalArgumentException("numberOfProductsInStock must not be negative");
+        }
+    }
+
+    private static final class IngestJob {
+        private final String trackingId;
+        private final ProductCategory category;
+        private final List<? extends Product> products;
+        private final Instant acceptedAt = Instant.now();
+        private volatile IngestStatus status = IngestStatus.QUEUED;
+        private volatile List<Long> productIds = List.of();
+        private volatile String error;
+        private volatile Instant completedAt;
+
+        private IngestJob(String trackingId, ProductCategory category, List<? extends Product> products) {
+            this.trackingId = trackingId;
+            this.category = category;
+            this.products = products;
+        }
+
+        private void complete(IngestStatus status, List<Long> productIds, String error) {
+            this.productIds = productIds;
+            this.error = error;
+            this.completedAt = Instant.now();
+            this.status = status;
+        }
+
+        private IngestStatusResponse toResponse() {
+            return new IngestStatusResponse(trackingId, category.getName(), status, products.size(), productIds,
+                    error, acceptedAt, completedAt);
+        }
+    }
+}
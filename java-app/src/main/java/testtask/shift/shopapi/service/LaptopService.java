@@ -2,14 +2,22 @@ package testtask.shift.shopapi.service;
 
 import com.sun.istack.NotNull;
 import org.springframework.validation.annotation.Validated;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.repository.ProductProjection;
+
+import java.util.List;
 
 @Validated
 public interface LaptopService {
     @NotNull
     Iterable<Laptop> getAllLaptops();
 
+    ProductProjection getAllLaptops(List<String> fields);
+
     Laptop getLaptop(long id);
 
     Laptop save(Laptop laptop);
+
+    UpsertResult upsert(List<Laptop> laptops);
 }
@@ -1,26 +1,50 @@
 package testtask.shift.shopapi.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.laptop.Laptop;
 import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.ProductProjectionRepository;
+
+import java.util.List;
 
 @Service
 @Transactional
 public class LaptopServiceImpl implements LaptopService {
     private final LaptopRepository laptopRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductUpsertService productUpsertService;
+    private final ProductProjectionRepository productProjectionRepository;
 
-    public LaptopServiceImpl(LaptopRepository laptopRepository) {
+    public LaptopServiceImpl(LaptopRepository laptopRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             ProductUpsertService productUpsertService,
+                             ProductProjectionRepository productProjectionRepository) {
         this.laptopRepository = laptopRepository;
+        this.eventPublisher = eventPublisher;
+        this.productUpsertService = productUpsertService;
+        this.productProjectionRepository = productProjectionRepository;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<Laptop> getAllLaptops() {
         return laptopRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ProductProjection getAllLaptops(List<String> fields) {
+        return productProjectionRepository.findAll(ProductCategory.LAPTOPS, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Laptop getLaptop(long id) {
         return laptopRepository
                 .findById(id)
@@ -29,6 +53,13 @@ public class LaptopServiceImpl implements LaptopService {
 
     @Override
     public Laptop save(Laptop laptop) {
-        return laptopRepository.save(laptop);
+        Laptop saved = laptopRepository.save(laptop);
+        eventPublisher.publishEvent(new ProductSavedEvent(ProductCategory.LAPTOPS, saved));
+        return saved;
+    }
+
+    @Override
+    public UpsertResult upsert(List<Laptop> laptops) {
+        return productUpsertService.upsert(ProductCategory.LAPTOPS, laptops);
     }
 }
@@ -2,14 +2,22 @@ package testtask.shift.shopapi.service;
 
 import com.sun.istack.NotNull;
 import org.springframework.validation.annotation.Validated;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.repository.ProductProjection;
+
+import java.util.List;
 
 @Validated
 public interface MonitorService {
     @NotNull
     Iterable<Monitor> getAllMonitors();
 
+    ProductProjection getAllMonitors(List<String> fields);
+
     Monitor getMonitor(long id);
 
     Monitor save(Monitor monitor);
+
+    UpsertResult upsert(List<Monitor> monitors);
 }
@@ -1,26 +1,50 @@
 package testtask.shift.shopapi.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.monitor.Monitor;
 import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.ProductProjectionRepository;
+
+import java.util.List;
 
 @Service
 @Transactional
 public class MonitorServiceImpl implements MonitorService {
     private final MonitorRepository monitorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductUpsertService productUpsertService;
+    private final ProductProjectionRepository productProjectionRepository;
 
-    public MonitorServiceImpl(MonitorRepository monitorRepository) {
+    public MonitorServiceImpl(MonitorRepository monitorRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              ProductUpsertService productUpsertService,
+                             ProductProjectionRepository productProjectionRepository) {
         this.monitorRepository = monitorRepository;
+        this.eventPublisher = eventPublisher;
+        this.productUpsertService = productUpsertService;
+        this.productProjectionRepository = productProjectionRepository;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<Monitor> getAllMonitors() {
         return monitorRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ProductProjection getAllMonitors(List<String> fields) {
+        return productProjectionRepository.findAll(ProductCategory.MONITORS, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Monitor getMonitor(long id) {
         return monitorRepository
                 .findById(id)
@@ -29,6 +53,13 @@ public class MonitorServiceImpl implements MonitorService {
 
     @Override
     public Monitor save(Monitor monitor) {
-        return monitorRepository.save(monitor);
+        Monitor saved = monitorRepository.save(monitor);
+        eventPublisher.publishEvent(new ProductSavedEvent(ProductCategory.MONITORS, saved));
+        return saved;
+    }
+
+    @Override
+    public UpsertResult upsert(List<Monitor> monitors) {
+        return productUpsertService.upsert(ProductCategory.MONITORS, monitors);
     }
 }
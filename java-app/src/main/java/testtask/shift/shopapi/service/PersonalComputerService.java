@@ -2,14 +2,22 @@ package testtask.shift.shopapi.service;
 
 import com.sun.istack.NotNull;
 import org.springframework.validation.annotation.Validated;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.pc.PersonalComputer;
+import testtask.shift.shopapi.repository.ProductProjection;
+
+import java.util.List;
 
 @Validated
 public interface PersonalComputerService {
     @NotNull
     Iterable<PersonalComputer> getAllPersonalComputers();
 
+    ProductProjection getAllPersonalComputers(List<String> fields);
+
     PersonalComputer getPersonalComputer(long id);
 
     PersonalComputer save(PersonalComputer personalComputer);
+
+    UpsertResult upsert(List<PersonalComputer> personalComputers);
 }
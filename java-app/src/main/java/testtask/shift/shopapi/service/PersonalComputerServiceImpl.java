@@ -1,26 +1,50 @@
 package testtask.shift.shopapi.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.UpsertResult;
 import testtask.shift.shopapi.model.pc.PersonalComputer;
 import testtask.shift.shopapi.repository.PersonalComputerRepository;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.repository.ProductProjectionRepository;
+
+import java.util.List;
 
 @Service
 @Transactional
 public class PersonalComputerServiceImpl implements PersonalComputerService {
     private final PersonalComputerRepository personalComputerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductUpsertService productUpsertService;
+    private final ProductProjectionRepository productProjectionRepository;
 
-    public PersonalComputerServiceImpl(PersonalComputerRepository personalComputerRepository) {
+    public PersonalComputerServiceImpl(PersonalComputerRepository personalComputerRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       ProductUpsertService productUpsertService,
+                             ProductProjectionRepository productProjectionRepository) {
         this.personalComputerRepository = personalComputerRepository;
+        this.eventPublisher = eventPublisher;
+        this.productUpsertService = productUpsertService;
+        this.productProjectionRepository = productProjectionRepository;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Iterable<PersonalComputer> getAllPersonalComputers() {
         return personalComputerRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ProductProjection getAllPersonalComputers(List<String> fields) {
+        return productProjectionRepository.findAll(ProductCategory.PERSONAL_COMPUTERS, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public PersonalComputer getPersonalComputer(long id) {
         return personalComputerRepository
                 .findById(id)
@@ -29,6 +53,13 @@ public class PersonalComputerServiceImpl implements PersonalComputerService {
 
     @Override
     public PersonalComputer save(PersonalComputer personalComputer) {
-        return personalComputerRepository.save(personalComputer);
+        PersonalComputer saved = personalComputerRepository.save(personalComputer);
+        eventPublisher.publishEvent(new ProductSavedEvent(ProductCategory.PERSONAL_COMPUTERS, saved));
+        return saved;
+    }
+
+    @Override
+    public UpsertResult upsert(List<PersonalComputer> personalComputers) {
+        return productUpsertService.upsert(ProductCategory.PERSONAL_COMPUTERS, personalComputers);
     }
 }
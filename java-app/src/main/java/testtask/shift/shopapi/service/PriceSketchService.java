@@ -0,0 +1,158 @@
+package testtask.shift.shopapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.PriceDistribution;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+import testtask.shift.shopapi.service.sketch.KllSketch;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class PriceSketchService implements CatalogIndex {
+    private static final Logger log = LoggerFactory.getLogger(PriceSketchService.class);
+
+    private final CatalogScanner catalogScanner;
+    private final int categoryK;
+    private final int producerK;
+    private final int maxProducers;
+
+    private Sketches current;
+    private Sketches rebuilding;
+
+    public PriceSketchService(CatalogScanner catalogScanner,
+                              @Value("${shop.stats.sketch.category-k:200}") int categoryK,
+                              @Value("${shop.stats.sketch.producer-k:64}") int producerK,
+                              @Value("${shop.stats.sketch.max-producers:10000}") int maxProducers) {
+        this.catalogScanner = catalogScanner;
+        this.categoryK = categoryK;
+        this.producerK = producerK;
+        this.maxProducers = maxProducers;
+        reset();
+    }
+
+    @Override
+    public synchronized void reset() {
+        current = new Sketches();
+        rebuilding = null;
+    }
+
+    @Override
+    public void accept(ProductCategory category, Product product) {
+        if (product.getPrice() == null) {
+            return;
+        }
+        Sketches target;
+        Sketches next;
+        synchronized (this) {
+            target = current;
+            next = rebuilding;
+        }
+        target.update(category, product);
+        if (next != null) {
+            next.update(category, product);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shop.stats.sketch.rebuild-interval-ms:3600000}",
+            initialDelayString = "${shop.stats.sketch.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Sketches next = new Sketches();
+        synchronized (this) {
+            rebuilding = next;
+        }
+        try {
+            long rows = ReadWriteRoutingDataSource.onPrimary(() -> {
+                long scanned = 0L;
+                for (ProductCategory category : ProductCategory.values()) {
+                    scanned += catalogScanner.scan(category, product -> {
+                        if (product.getPrice() != null) {
+                            next.update(category, product);
+                        }
+                    });
+                }
+                return scanned;
+            });
+            synchronized (this) {
+                if (rebuilding != next) {
+                    return;
+                }
+                current = next;
+            }
+            log.info("Rebuilt price sketches from {} rows in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild price sketches", e);
+        } finally {
+            synchronized (this) {
+                if (rebuilding == next) {
+                    rebuilding = null;
+                }
+            }
+        }
+    }
+
+    public PriceDistribution distribution(ProductCategory category) {
+        return describe(sketches().categories.get(category));
+    }
+
+    public PriceDistribution distribution(ProductCategory category, String producer) {
+        KllSketch sketch = sketches().producers.get(category).get(producer);
+        return sketch != null ? describe(sketch) : null;
+    }
+
+    private synchronized Sketches sketches() {
+        return current;
+    }
+
+    private PriceDistribution describe(KllSketch sketch) {
+        long count = sketch.getCount();
+        return new PriceDistribution(count,
+                price(sketch, 0.5),
+                price(sketch, 0.9),
+                price(sketch, 0.99),
+                count > 0 ? sketch.getNormalizedRankError() : 0.0);
+    }
+
+    private BigDecimal price(KllSketch sketch, double rank) {
+        double value = sketch.quantile(rank);
+        return Double.isNaN(value) ? BigDecimal.ZERO : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private class Sketches {
+        private final Map<ProductCategory, KllSketch> categories = new EnumMap<>(ProductCategory.class);
+        private final Map<ProductCategory, Map<String, KllSketch>> producers = new EnumMap<>(ProductCategory.class);
+
+        Sketches() {
+            for (ProductCategory category : ProductCategory.values()) {
+                categories.put(category, new KllSketch(categoryK));
+                producers.put(category, new ConcurrentHashMap<>());
+            }
+        }
+
+        void update(ProductCategory category, Product product) {
+            double price = product.getPrice().doubleValue();
+            categories.get(category).update(price);
+            if (product.getProducer() == null) {
+                return;
+            }
+            Map<String, KllSketch> byProducer = producers.get(category);
+            KllSketch sketch = byProducer.get(product.getProducer());
+            if (sketch == null && byProducer.size() < maxProducers) {
+                sketch = byProducer.computeIfAbsent(product.getProducer(), producer -> new KllSketch(producerK));
+            }
+            if (sketch != null) {
+                sketch.update(price);
+            }
+        }
+    }
+}
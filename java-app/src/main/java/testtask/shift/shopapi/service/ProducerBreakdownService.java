@@ -0,0 +1,132 @@
+package testtask.shift.shopapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import testtask.shift.shopapi.jfr.AggregationEvent;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.CategoryProducerBreakdown;
+import testtask.shift.shopapi.model.analytics.ProducerBreakdownResponse;
+import testtask.shift.shopapi.model.analytics.ProducerMetrics;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.PersonalComputerRepository;
+import testtask.shift.shopapi.repository.ProducerAggregate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+@Service
+public class ProducerBreakdownService {
+    static final String OTHER = "other";
+
+    private final Map<ProductCategory, IntFunction<List<ProducerAggregate>>> queries = new EnumMap<>(ProductCategory.class);
+    private final Map<ProductCategory, AtomicLong> generations = new EnumMap<>(ProductCategory.class);
+    private final Map<CacheKey, Cached> cache = new ConcurrentHashMap<>();
+    private final int maxLimit;
+
+    public ProducerBreakdownService(LaptopRepository laptopRepository,
+                                    MonitorRepository monitorRepository,
+                                    PersonalComputerRepository personalComputerRepository,
+                                    HardDriveRepository hardDriveRepository,
+                                    @Value("${shop.stats.by-producer.max-limit:100}") int maxLimit) {
+        queries.put(ProductCategory.LAPTOPS, laptopRepository::aggregateByProducer);
+        queries.put(ProductCategory.MONITORS, monitorRepository::aggregateByProducer);
+        queries.put(ProductCategory.PERSONAL_COMPUTERS, personalComputerRepository::aggregateByProducer);
+        queries.put(ProductCategory.HARD_DRIVES, hardDriveRepository::aggregateByProducer);
+        for (ProductCategory category : ProductCategory.values()) {
+            generations.put(category, new AtomicLong());
+        }
+        this.maxLimit = maxLimit;
+    }
+
+    public ProducerBreakdownResponse breakdown(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be within [1, " + maxLimit + "]");
+        }
+
+        List<CategoryProducerBreakdown> categories = new ArrayList<>();
+        for (ProductCategory category : ProductCategory.values()) {
+            categories.add(breakdown(category, limit));
+        }
+        return new ProducerBreakdownResponse(limit, categories);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductSaved(ProductSavedEvent event) {
+        generations.get(event.category()).incrementAndGet();
+        cache.keySet().removeIf(key -> key.category() == event.category());
+    }
+
+    @EventListener(CatalogFlushEvent.class)
+    public void onCatalogFlushed() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        cache.clear();
+    }
+
+    private CategoryProducerBreakdown breakdown(ProductCategory category, int limit) {
+        CacheKey key = new CacheKey(category, limit);
+        long generation = generations.get(category).get();
+        Cached cached = cache.get(key);
+        if (cached != null && cached.generation == generation) {
+            return cached.breakdown;
+        }
+
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
+        List<ProducerMetrics> topProducers = new ArrayList<>(limit);
+        ProducerMetrics other = null;
+        long otherProducers = 0L;
+        long totalProducers = 0L;
+        for (ProducerAggregate aggregate : queries.get(category).apply(limit)) {
+            totalProducers = valueOf(aggregate.getTotalProducers());
+            if (Boolean.TRUE.equals(aggregate.getOther())) {
+                other = toMetrics(OTHER, aggregate);
+                otherProducers = valueOf(aggregate.getProducers());
+            } else {
+                topProducers.add(toMetrics(aggregate.getProducer(), aggregate));
+            }
+        }
+        event.complete("by-producer", category.getName(), totalProducers);
+
+        CategoryProducerBreakdown fresh = new CategoryProducerBreakdown(category.getName(), totalProducers,
+                topProducers, otherProducers, other);
+        if (generations.get(category).get() == generation) {
+            cache.merge(key, new Cached(generation, fresh),
+                    (current, candidate) -> candidate.generation >= current.generation ? candidate : current);
+        }
+        return fresh;
+    }
+
+    private static ProducerMetrics toMetrics(String producer, ProducerAggregate aggregate) {
+        long pricedProducts = valueOf(aggregate.getPricedProducts());
+        BigDecimal averagePrice = pricedProducts > 0
+                ? valueOf(aggregate.getPriceTotal()).divide(BigDecimal.valueOf(pricedProducts), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        return new ProducerMetrics(producer, valueOf(aggregate.getProducts()), valueOf(aggregate.getStockUnits()),
+                averagePrice, valueOf(aggregate.getInventoryValue()));
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static BigDecimal valueOf(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private record CacheKey(ProductCategory category, int limit) {
+    }
+
+    private record Cached(long generation, CategoryProducerBreakdown breakdown) {
+    }
+}
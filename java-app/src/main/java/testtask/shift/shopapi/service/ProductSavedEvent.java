@@ -0,0 +1,7 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+
+public record ProductSavedEvent(ProductCategory category, Product product) {
+}
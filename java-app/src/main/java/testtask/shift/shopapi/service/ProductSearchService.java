@@ -0,0 +1,7 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.search.SearchResponse;
+
+public interface ProductSearchService {
+    SearchResponse search(String query, int page, int size);
+}
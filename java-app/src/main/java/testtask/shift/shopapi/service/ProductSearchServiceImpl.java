@@ -0,0 +1,62 @@
+package testtask.shift.shopapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.search.SearchHit;
+import testtask.shift.shopapi.model.search.SearchResponse;
+import testtask.shift.shopapi.service.search.TrigramIndex;
+
+import java.util.List;
+
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService, CatalogIndex {
+    private final TrigramIndex index;
+    private final int maxPageSize;
+    private final int maxResultWindow;
+
+    public ProductSearchServiceImpl(@Value("${shop.search.similarity-threshold:0.3}") double similarityThreshold,
+                                    @Value("${shop.search.max-candidates:100000}") int maxCandidates,
+                                    @Value("${shop.search.max-page-size:100}") int maxPageSize,
+                                    @Value("${shop.search.max-result-window:10000}") int maxResultWindow) {
+        this.index = new TrigramIndex(similarityThreshold, maxCandidates);
+        this.maxPageSize = maxPageSize;
+        this.maxResultWindow = maxResultWindow;
+    }
+
+    @Override
+    public void reset() {
+        index.clear();
+    }
+
+    @Override
+    public void accept(ProductCategory category, Product product) {
+        if (product.getId() != null) {
+            index.put(category, product.getId(), product.getProducer(), product.getSeriesNumber());
+        }
+    }
+
+    @Override
+    public SearchResponse search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("size must be within [1, " + maxPageSize + "]");
+        }
+        if ((long) page * size + size > maxResultWindow) {
+            throw new IllegalArgumentException("Only the first " + maxResultWindow + " results can be paged through");
+        }
+
+        TrigramIndex.Result result = index.search(query, page * size, size);
+        List<SearchHit> hits = result.hits().stream()
+                .map(hit -> new SearchHit(hit.category().getName(), hit.id(), hit.producer(), hit.seriesNumber(),
+                        Math.round(hit.score() * 1000.0) / 1000.0))
+                .toList();
+        return new SearchResponse(query, page, size, result.totalMatches(), result.truncated(), hits);
+    }
+}
@@ -0,0 +1,44 @@
+package testtask.shift.shopapi.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.UpsertResult;
+import testtask.shift.shopapi.repository.ProductUpsertRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional
+public class ProductUpsertService {
+    private final ProductUpsertRepository productUpsertRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductUpsertService(ProductUpsertRepository productUpsertRepository, ApplicationEventPublisher eventPublisher) {
+        this.productUpsertRepository = productUpsertRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public UpsertResult upsert(ProductCategory category, List<? extends Product> products) {
+        Map<String, Product> bySeries = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product.getSeriesNumber() == null || product.getSeriesNumber().isBlank()) {
+                throw new IllegalArgumentException("seriesNumber is required for upsert");
+            }
+            bySeries.put(product.getSeriesNumber(), product);
+        }
+
+        ProductUpsertRepository.Outcome outcome = productUpsertRepository.upsert(category, new ArrayList<>(bySeries.values()));
+        for (Product changed : outcome.changed()) {
+            eventPublisher.publishEvent(new ProductSavedEvent(category, changed));
+        }
+
+        return new UpsertResult(outcome.inserted(), outcome.updated(), outcome.unchanged(),
+                products.size() - bySeries.size());
+    }
+}
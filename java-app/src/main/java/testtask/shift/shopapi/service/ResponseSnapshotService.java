@@ -0,0 +1,218 @@
+package testtask.shift.shopapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@ConditionalOnProperty(name = "shop.snapshot.enabled", havingValue = "true")
+public class ResponseSnapshotService {
+    public static final String STATS = "stats";
+    public static final String INSIGHTS = "insights";
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseSnapshotService.class);
+
+    private final Map<String, Supplier<Object>> sources = new LinkedHashMap<>();
+    private final Map<String, ObjectMapper> encoders = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Snapshot>> snapshots = new ConcurrentHashMap<>();
+    private final Set<String> pendingRebuilds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final ScheduledExecutorService rebuilder;
+    private final long debounceMs;
+    private final long maxBytes;
+    private final int compressionThreshold;
+    private final Timer buildTimer;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejected;
+
+    public ResponseSnapshotService(LaptopService laptopService,
+                                   MonitorService monitorService,
+                                   PersonalComputerService personalComputerService,
+                                   HardDriveService hardDriveService,
+                                   StatsService statsService,
+                                   ObjectMapper objectMapper,
+                                   MappingJackson2CborHttpMessageConverter cborConverter,
+                                   MappingJackson2SmileHttpMessageConverter smileConverter,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${shop.snapshot.formats:application/json}") List<String> formats,
+                                   @Value("${shop.snapshot.debounce-ms:500}") long debounceMs,
+                                   @Value("${shop.snapshot.max-bytes:268435456}") long maxBytes,
+                                   @Value("${shop.snapshot.compression-threshold-bytes:2048}") int compressionThreshold) {
+        sources.put(ProductCategory.LAPTOPS.getPath(), laptopService::getAllLaptops);
+        sources.put(ProductCategory.MONITORS.getPath(), monitorService::getAllMonitors);
+        sources.put(ProductCategory.PERSONAL_COMPUTERS.getPath(), personalComputerService::getAllPersonalComputers);
+        sources.put(ProductCategory.HARD_DRIVES.getPath(), hardDriveService::getAllHardDrives);
+        sources.put(STATS, statsService::getStats);
+        sources.put(INSIGHTS, statsService::getInsights);
+        sources.keySet().forEach(key -> generations.put(key, new AtomicLong()));
+
+        Map<String, ObjectMapper> available = Map.of(
+                ApiMediaTypes.JSON, objectMapper,
+                ApiMediaTypes.CBOR, cborConverter.getObjectMapper(),
+                ApiMediaTypes.SMILE, smileConverter.getObjectMapper());
+        for (String format : formats) {
+            ObjectMapper encoder = available.get(format.trim());
+            if (encoder == null) {
+                throw new IllegalArgumentException("Unsupported snapshot format: " + format);
+            }
+            encoders.put(format.trim(), encoder);
+        }
+
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.debounceMs = debounceMs;
+        this.maxBytes = maxBytes;
+        this.compressionThreshold = compressionThreshold;
+
+        Gauge.builder("shop.snapshot.bytes", storedBytes, AtomicLong::get)
+                .description("Encoded response bytes held in snapshots")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shop.snapshot.entries", snapshots, map -> map.values().stream().mapToInt(Map::size).sum())
+                .description("Snapshots ready to be served")
+                .register(meterRegistry);
+        this.buildTimer = Timer.builder("shop.snapshot.build")
+                .description("Time to encode one resource in all snapshot formats")
+                .register(meterRegistry);
+        this.hits = meterRegistry.counter("shop.snapshot.requests", "result", "hit");
+        this.misses = meterRegistry.counter("shop.snapshot.requests", "result", "miss");
+        this.rejected = meterRegistry.counter("shop.snapshot.rejected");
+    }
+
+    public Snapshot get(String key, String format) {
+        Map<String, Snapshot> byFormat = snapshots.get(key);
+        Snapshot snapshot = byFormat != null ? byFormat.get(format) : null;
+        (snapshot != null ? hits : misses).increment();
+        return snapshot;
+    }
+
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogFlushEvent.class})
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void buildAll() {
+        sources.keySet().forEach(this::invalidate);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductSaved(ProductSavedEvent event) {
+        invalidate(event.category().getPath());
+        invalidate(STATS);
+        invalidate(INSIGHTS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void invalidate(String key) {
+        generations.get(key).incrementAndGet();
+        discard(key);
+        if (pendingRebuilds.add(key)) {
+            rebuilder.schedule(() -> rebuild(key), debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild(String key) {
+        pendingRebuilds.remove(key);
+        long generation = generations.get(key).get();
+        try {
+            Map<String, Snapshot> encoded = buildTimer.recordCallable(
+                    () -> encode(ReadWriteRoutingDataSource.onPrimary(sources.get(key))));
+            store(key, generation, encoded);
+        } catch (Exception e) {
+            log.warn("Could not rebuild response snapshot '{}'", key, e);
+        }
+    }
+
+    private Map<String, Snapshot> encode(Object value) throws IOException {
+        Map<String, Snapshot> encoded = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> encoder : encoders.entrySet()) {
+            byte[] body = encoder.getValue().writeValueAsBytes(value);
+            byte[] gzipped = body.length >= compressionThreshold ? gzip(body) : null;
+            encoded.put(encoder.getKey(), new Snapshot(encoder.getKey(), body, gzipped));
+        }
+        return Map.copyOf(encoded);
+    }
+
+    private synchronized void store(String key, long generation, Map<String, Snapshot> encoded) {
+        if (generations.get(key).get() != generation) {
+            return;
+        }
+        long size = encoded.values().stream().mapToLong(Snapshot::size).sum();
+        long previous = sizeOf(snapshots.get(key));
+        if (storedBytes.get() - previous + size > maxBytes) {
+            rejected.increment();
+            log.warn("Response snapshot '{}' ({} bytes) does not fit into shop.snapshot.max-bytes={}", key, size, maxBytes);
+            discard(key);
+            return;
+        }
+        snapshots.put(key, encoded);
+        storedBytes.addAndGet(size - previous);
+    }
+
+    private synchronized void discard(String key) {
+        storedBytes.addAndGet(-sizeOf(snapshots.remove(key)));
+    }
+
+    private static long sizeOf(Map<String, Snapshot> encoded) {
+        return encoded != null ? encoded.values().stream().mapToLong(Snapshot::size).sum() : 0L;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public record Snapshot(String contentType, byte[] body, byte[] gzipped) {
+        public long size() {
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
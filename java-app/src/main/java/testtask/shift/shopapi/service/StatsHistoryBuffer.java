@@ -0,0 +1,131 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.analytics.HistoryResolution;
+import testtask.shift.shopapi.model.analytics.StatsHistoryPoint;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+class StatsHistoryBuffer {
+    static final int HEADER_BYTES = 16;
+    static final int SLOT_BYTES = 5 * Long.BYTES;
+
+    private static final int MAGIC = 0x53484231;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int HEAD_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+
+    private static final int BUCKET = 0;
+    private static final int SAMPLES = 8;
+    private static final int PRODUCTS = 16;
+    private static final int STOCK = 24;
+    private static final int VALUE_CENTS = 32;
+
+    private final HistoryResolution resolution;
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    StatsHistoryBuffer(HistoryResolution resolution, ByteBuffer buffer, int capacity) {
+        if (buffer.capacity() < bytesFor(capacity)) {
+            throw new IllegalArgumentException("Buffer too small for " + capacity + " slots");
+        }
+        this.resolution = resolution;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(CAPACITY_OFFSET) != capacity) {
+            clear();
+        }
+    }
+
+    static int bytesFor(int capacity) {
+        return HEADER_BYTES + capacity * SLOT_BYTES;
+    }
+
+    HistoryResolution getResolution() {
+        return resolution;
+    }
+
+    synchronized int size() {
+        return buffer.getInt(SIZE_OFFSET);
+    }
+
+    synchronized void clear() {
+        for (int i = 0; i < bytesFor(capacity); i += Long.BYTES) {
+            buffer.putLong(i, 0L);
+        }
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(HEAD_OFFSET, 0);
+        buffer.putInt(SIZE_OFFSET, 0);
+    }
+
+    synchronized void record(long epochSecond, long totalProducts, long totalStockUnits, long inventoryValueCents) {
+        long bucket = resolution.bucketStart(epochSecond);
+        int size = buffer.getInt(SIZE_OFFSET);
+        int head = buffer.getInt(HEAD_OFFSET);
+
+        if (size > 0) {
+            int latest = slotOffset(head - 1);
+            long latestBucket = buffer.getLong(latest + BUCKET);
+            if (latestBucket == bucket) {
+                add(latest, SAMPLES, 1L);
+                add(latest, PRODUCTS, totalProducts);
+                add(latest, STOCK, totalStockUnits);
+                add(latest, VALUE_CENTS, inventoryValueCents);
+                return;
+            }
+            if (bucket < latestBucket) {
+                return;
+            }
+        }
+
+        int slot = slotOffset(head);
+        buffer.putLong(slot + BUCKET, bucket);
+        buffer.putLong(slot + SAMPLES, 1L);
+        buffer.putLong(slot + PRODUCTS, totalProducts);
+        buffer.putLong(slot + STOCK, totalStockUnits);
+        buffer.putLong(slot + VALUE_CENTS, inventoryValueCents);
+        buffer.putInt(HEAD_OFFSET, (head + 1) % capacity);
+        buffer.putInt(SIZE_OFFSET, Math.min(size + 1, capacity));
+    }
+
+    synchronized List<StatsHistoryPoint> query(long fromEpochSecond, long toEpochSecond) {
+        int size = buffer.getInt(SIZE_OFFSET);
+        int head = buffer.getInt(HEAD_OFFSET);
+        long fromBucket = resolution.bucketStart(fromEpochSecond);
+        List<StatsHistoryPoint> points = new ArrayList<>();
+
+        for (int i = size; i > 0; i--) {
+            int slot = slotOffset(head - i);
+            long bucket = buffer.getLong(slot + BUCKET);
+            if (bucket < fromBucket || bucket > toEpochSecond) {
+                continue;
+            }
+            long samples = buffer.getLong(slot + SAMPLES);
+            points.add(new StatsHistoryPoint(
+                    Instant.ofEpochSecond(bucket),
+                    samples,
+                    buffer.getLong(slot + PRODUCTS) / samples,
+                    buffer.getLong(slot + STOCK) / samples,
+                    BigDecimal.valueOf(buffer.getLong(slot + VALUE_CENTS), 2)
+                            .divide(BigDecimal.valueOf(samples), 2, RoundingMode.HALF_UP)
+            ));
+        }
+
+        return points;
+    }
+
+    private int slotOffset(int index) {
+        return HEADER_BYTES + Math.floorMod(index, capacity) * SLOT_BYTES;
+    }
+
+    private void add(int slot, int field, long delta) {
+        buffer.putLong(slot + field, buffer.getLong(slot + field) + delta);
+    }
+}
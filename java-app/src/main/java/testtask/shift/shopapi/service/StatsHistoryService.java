@@ -0,0 +1,12 @@
+package testtask.shift.shopapi.service;
+
+import testtask.shift.shopapi.model.analytics.HistoryResolution;
+import testtask.shift.shopapi.model.analytics.StatsHistoryResponse;
+
+import java.time.Instant;
+
+public interface StatsHistoryService {
+    void sample();
+
+    StatsHistoryResponse getHistory(Instant from, Instant to, HistoryResolution resolution);
+}
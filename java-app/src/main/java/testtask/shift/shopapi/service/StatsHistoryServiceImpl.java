@@ -0,0 +1,115 @@
+package testtask.shift.shopapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import testtask.shift.shopapi.model.analytics.HistoryResolution;
+import testtask.shift.shopapi.model.analytics.StatsHistoryResponse;
+import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+public class StatsHistoryServiceImpl implements StatsHistoryService {
+    private static final Logger log = LoggerFactory.getLogger(StatsHistoryServiceImpl.class);
+
+    private final StatsService statsService;
+    private final Clock clock;
+    private final Map<HistoryResolution, StatsHistoryBuffer> buffers = new EnumMap<>(HistoryResolution.class);
+    private final ByteBuffer storage;
+
+    public StatsHistoryServiceImpl(StatsService statsService,
+                                   @Value("${shop.stats.history.minute-slots:1440}") int minuteSlots,
+                                   @Value("${shop.stats.history.hour-slots:720}") int hourSlots,
+                                   @Value("${shop.stats.history.day-slots:730}") int daySlots,
+                                   @Value("${shop.stats.history.file:}") String file) {
+        this.statsService = statsService;
+        this.clock = Clock.systemUTC();
+
+        Map<HistoryResolution, Integer> slots = new EnumMap<>(HistoryResolution.class);
+        slots.put(HistoryResolution.MINUTE, minuteSlots);
+        slots.put(HistoryResolution.HOUR, hourSlots);
+        slots.put(HistoryResolution.DAY, daySlots);
+
+        int totalBytes = slots.values().stream().mapToInt(StatsHistoryBuffer::bytesFor).sum();
+        this.storage = file.isBlank() ? ByteBuffer.allocate(totalBytes) : map(Path.of(file), totalBytes);
+
+        int offset = 0;
+        for (Map.Entry<HistoryResolution, Integer> entry : slots.entrySet()) {
+            int length = StatsHistoryBuffer.bytesFor(entry.getValue());
+            buffers.put(entry.getKey(), new StatsHistoryBuffer(entry.getKey(), storage.slice(offset, length), entry.getValue()));
+            offset += length;
+        }
+    }
+
+    @Override
+    @Scheduled(fixedRateString = "${shop.stats.history.sample-interval-ms:60000}",
+            initialDelayString = "${shop.stats.history.sample-interval-ms:60000}")
+    public void sample() {
+        StatsInsightsResponse insights;
+        try {
+            insights = statsService.getInsights();
+        } catch (RuntimeException e) {
+            log.warn("Failed to sample stats history", e);
+            return;
+        }
+
+        long now = clock.instant().getEpochSecond();
+        long valueCents = insights.getTotalInventoryValue()
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+        for (StatsHistoryBuffer buffer : buffers.values()) {
+            buffer.record(now, insights.getTotalProducts(), insights.getTotalStockUnits(), valueCents);
+        }
+    }
+
+    @Override
+    public StatsHistoryResponse getHistory(Instant from, Instant to, HistoryResolution resolution) {
+        Instant end = to != null ? to : clock.instant();
+        Instant start = from != null ? from : end.minusSeconds(resolution.getSeconds() * 60);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        return new StatsHistoryResponse(resolution, start, end,
+                buffers.get(resolution).query(start.getEpochSecond(), end.getEpochSecond()));
+    }
+
+    @PreDestroy
+    public void flush() {
+        if (storage instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int size) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map stats history file " + path, e);
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package testtask.shift.shopapi.service;
 
+import testtask.shift.shopapi.model.analytics.CardinalityResponse;
+import testtask.shift.shopapi.model.analytics.ProducerBreakdownResponse;
+import testtask.shift.shopapi.model.analytics.ProducerPriceDistribution;
 import testtask.shift.shopapi.model.analytics.StatsResponse;
 import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
 
+import java.util.List;
+
 public interface StatsService {
     StatsResponse getStats();
 
     StatsInsightsResponse getInsights();
+
+    List<ProducerPriceDistribution> getProducerPrices(String producer);
+
+    CardinalityResponse getCardinality();
+
+    ProducerBreakdownResponse getProducerBreakdown(int limit);
 }
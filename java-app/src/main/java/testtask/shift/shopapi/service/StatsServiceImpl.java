@@ -1,8 +1,16 @@
 package testtask.shift.shopapi.service;
 
+import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import testtask.shift.shopapi.jfr.AggregationEvent;
 import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.CardinalityResponse;
 import testtask.shift.shopapi.model.analytics.CategoryMetrics;
+import testtask.shift.shopapi.model.analytics.PriceDistribution;
+import testtask.shift.shopapi.model.analytics.ProducerBreakdownResponse;
+import testtask.shift.shopapi.model.analytics.ProducerPriceDistribution;
 import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
 import testtask.shift.shopapi.model.analytics.StatsResponse;
 import testtask.shift.shopapi.repository.HardDriveRepository;
@@ -12,31 +20,42 @@ import testtask.shift.shopapi.repository.PersonalComputerRepository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class StatsServiceImpl implements StatsService {
     private final LaptopRepository laptopRepository;
     private final MonitorRepository monitorRepository;
     private final PersonalComputerRepository personalComputerRepository;
     private final HardDriveRepository hardDriveRepository;
+    private final PriceSketchService priceSketchService;
+    private final CardinalityService cardinalityService;
+    private final ProducerBreakdownService producerBreakdownService;
 
     public StatsServiceImpl(LaptopRepository laptopRepository,
                             MonitorRepository monitorRepository,
                             PersonalComputerRepository personalComputerRepository,
-                            HardDriveRepository hardDriveRepository) {
+                            HardDriveRepository hardDriveRepository,
+                            PriceSketchService priceSketchService,
+                            CardinalityService cardinalityService,
+                            ProducerBreakdownService producerBreakdownService) {
         this.laptopRepository = laptopRepository;
         this.monitorRepository = monitorRepository;
         this.personalComputerRepository = personalComputerRepository;
         this.hardDriveRepository = hardDriveRepository;
+        this.priceSketchService = priceSketchService;
+        this.cardinalityService = cardinalityService;
+        this.producerBreakdownService = producerBreakdownService;
     }
 
     @Override
     public StatsResponse getStats() {
-        CategoryTotals laptopTotals = computeTotals(laptopRepository.findAll());
-        CategoryTotals monitorTotals = computeTotals(monitorRepository.findAll());
-        CategoryTotals pcTotals = computeTotals(personalComputerRepository.findAll());
-        CategoryTotals hddTotals = computeTotals(hardDriveRepository.findAll());
+        CategoryTotals laptopTotals = computeTotals(ProductCategory.LAPTOPS, laptopRepository);
+        CategoryTotals monitorTotals = computeTotals(ProductCategory.MONITORS, monitorRepository);
+        CategoryTotals pcTotals = computeTotals(ProductCategory.PERSONAL_COMPUTERS, personalComputerRepository);
+        CategoryTotals hddTotals = computeTotals(ProductCategory.HARD_DRIVES, hardDriveRepository);
 
         long totalProducts = laptopTotals.count + monitorTotals.count + pcTotals.count + hddTotals.count;
         long totalStockUnits = laptopTotals.stockUnits + monitorTotals.stockUnits + pcTotals.stockUnits + hddTotals.stockUnits;
@@ -46,10 +65,10 @@ public class StatsServiceImpl implements StatsService {
 
     @Override
     public StatsInsightsResponse getInsights() {
-        CategoryMetrics laptopMetrics = computeMetrics("laptops", laptopRepository.findAll());
-        CategoryMetrics monitorMetrics = computeMetrics("monitors", monitorRepository.findAll());
-        CategoryMetrics pcMetrics = computeMetrics("personalComputers", personalComputerRepository.findAll());
-        CategoryMetrics hddMetrics = computeMetrics("hardDrives", hardDriveRepository.findAll());
+        CategoryMetrics laptopMetrics = computeMetrics(ProductCategory.LAPTOPS, laptopRepository);
+        CategoryMetrics monitorMetrics = computeMetrics(ProductCategory.MONITORS, monitorRepository);
+        CategoryMetrics pcMetrics = computeMetrics(ProductCategory.PERSONAL_COMPUTERS, personalComputerRepository);
+        CategoryMetrics hddMetrics = computeMetrics(ProductCategory.HARD_DRIVES, hardDriveRepository);
 
         long totalProducts = laptopMetrics.getCount() + monitorMetrics.getCount() + pcMetrics.getCount() + hddMetrics.getCount();
         long totalStockUnits = laptopMetrics.getStockUnits() + monitorMetrics.getStockUnits() + pcMetrics.getStockUnits() + hddMetrics.getStockUnits();
@@ -66,11 +85,35 @@ public class StatsServiceImpl implements StatsService {
         ));
     }
 
-    private CategoryTotals computeTotals(Iterable<? extends Product> products) {
+    @Override
+    public List<ProducerPriceDistribution> getProducerPrices(String producer) {
+        List<ProducerPriceDistribution> distributions = new ArrayList<>();
+        for (ProductCategory category : ProductCategory.values()) {
+            PriceDistribution prices = priceSketchService.distribution(category, producer);
+            if (prices != null) {
+                distributions.add(new ProducerPriceDistribution(category.getName(), producer, prices));
+            }
+        }
+        return distributions;
+    }
+
+    @Override
+    public CardinalityResponse getCardinality() {
+        return cardinalityService.getCardinality();
+    }
+
+    @Override
+    public ProducerBreakdownResponse getProducerBreakdown(int limit) {
+        return producerBreakdownService.breakdown(limit);
+    }
+
+    private CategoryTotals computeTotals(ProductCategory category, CrudRepository<? extends Product, Long> repository) {
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
         long count = 0L;
         long stockUnits = 0L;
 
-        for (Product product : products) {
+        for (Product product : repository.findAll()) {
             count++;
             Long stock = product.getNumberOfProductsInStock();
             if (stock != null) {
@@ -78,20 +121,23 @@ public class StatsServiceImpl implements StatsService {
             }
         }
 
+        event.complete("totals", category.getName(), count);
         return new CategoryTotals(count, stockUnits);
     }
 
     private record CategoryTotals(long count, long stockUnits) {
     }
 
-    private CategoryMetrics computeMetrics(String categoryName, Iterable<? extends Product> products) {
+    private CategoryMetrics computeMetrics(ProductCategory category, CrudRepository<? extends Product, Long> repository) {
+        AggregationEvent event = new AggregationEvent();
+        event.begin();
         long count = 0L;
         long stockUnits = 0L;
         BigDecimal totalPrice = BigDecimal.ZERO;
         long priceCount = 0L;
         BigDecimal inventoryValue = BigDecimal.ZERO;
 
-        for (Product product : products) {
+        for (Product product : repository.findAll()) {
             count++;
             Long stock = product.getNumberOfProductsInStock();
             long safeStock = stock != null ? stock : 0L;
@@ -110,6 +156,8 @@ public class StatsServiceImpl implements StatsService {
                 ? totalPrice.divide(BigDecimal.valueOf(priceCount), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        return new CategoryMetrics(categoryName, count, stockUnits, averagePrice, inventoryValue);
+        event.complete("insights", category.getName(), count);
+        return new CategoryMetrics(category.getName(), count, stockUnits, averagePrice, inventoryValue,
+                priceSketchService.distribution(category));
     }
 }
@@ -0,0 +1,7 @@
+package testtask.shift.shopapi.service;
+
+public class StatsUnavailableException extends RuntimeException {
+    public StatsUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
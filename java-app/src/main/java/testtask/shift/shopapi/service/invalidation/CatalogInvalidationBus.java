@@ -0,0 +1,274 @@
+package testtask.shift.shopapi.service.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.PersonalComputerRepository;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+import testtask.shift.shopapi.service.CatalogFlushEvent;
+import testtask.shift.shopapi.service.ProductSavedEvent;
+import testtask.shift.shopapi.service.invalidation.InvalidationMessage.Change;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+@Service
+@ConditionalOnProperty(name = "shop.invalidation.enabled", havingValue = "true")
+public class CatalogInvalidationBus implements SmartLifecycle {
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogInvalidationBus.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final ThreadLocal<Boolean> APPLYING_REMOTE = ThreadLocal.withInitial(() -> false);
+
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<String, Long> lastVersions = new ConcurrentHashMap<>();
+    private final Map<ProductCategory, CrudRepository<? extends Product, Long>> repositories = new EnumMap<>(ProductCategory.class);
+    private final BlockingQueue<Change> outbox;
+    private final AtomicBoolean outboxOverflowed = new AtomicBoolean();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final long batchIntervalMs;
+    private final long pollTimeoutMs;
+    private final long reconnectBackoffMs;
+    private final Counter sentMessages;
+    private final Counter receivedMessages;
+    private final Counter flushes;
+
+    private volatile boolean running;
+    private Thread sender;
+    private Thread listener;
+
+    public CatalogInvalidationBus(LaptopRepository laptopRepository,
+                                  MonitorRepository monitorRepository,
+                                  PersonalComputerRepository personalComputerRepository,
+                                  HardDriveRepository hardDriveRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  DataSourceProperties dataSourceProperties,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shop.invalidation.channel:shop_catalog_invalidation}") String channel,
+                                  @Value("${shop.invalidation.outbox-capacity:10000}") int outboxCapacity,
+                                  @Value("${shop.invalidation.batch-interval-ms:50}") long batchIntervalMs,
+                                  @Value("${shop.invalidation.poll-timeout-ms:500}") long pollTimeoutMs,
+                                  @Value("${shop.invalidation.reconnect-backoff-ms:1000}") long reconnectBackoffMs) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("shop.invalidation.channel must be a lower-case SQL identifier");
+        }
+        repositories.put(ProductCategory.LAPTOPS, laptopRepository);
+        repositories.put(ProductCategory.MONITORS, monitorRepository);
+        repositories.put(ProductCategory.PERSONAL_COMPUTERS, personalComputerRepository);
+        repositories.put(ProductCategory.HARD_DRIVES, hardDriveRepository);
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.outbox = new ArrayBlockingQueue<>(outboxCapacity);
+        this.channel = channel;
+        this.batchIntervalMs = batchIntervalMs;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectBackoffMs = reconnectBackoffMs;
+        this.sentMessages = meterRegistry.counter("shop.invalidation.messages", "direction", "sent");
+        this.receivedMessages = meterRegistry.counter("shop.invalidation.messages", "direction", "received");
+        this.flushes = meterRegistry.counter("shop.invalidation.flushes");
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductSaved(ProductSavedEvent event) {
+        if (APPLYING_REMOTE.get() || event.product().getId() == null) {
+            return;
+        }
+        if (!outbox.offer(new Change(event.category(), event.product().getId()))) {
+            outboxOverflowed.set(true);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        sender = new Thread(this::sendLoop, "invalidation-sender");
+        sender.setDaemon(true);
+        sender.start();
+        listener = new Thread(this::listenLoop, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            sender.join(batchIntervalMs + pollTimeoutMs + 1_000);
+            listener.join(pollTimeoutMs + 1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    void handle(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (origin.equals(message.origin())) {
+            return;
+        }
+        receivedMessages.increment();
+
+        Long previous = lastVersions.put(message.origin(), message.version());
+        if (message.flushAll()) {
+            flushAll("instance " + message.origin() + " requested a full flush");
+        } else if (previous != null && message.version() != previous + 1) {
+            flushAll("gap in messages from " + message.origin() + ": expected " + (previous + 1) + ", got " + message.version());
+        } else {
+            apply(message.changes());
+        }
+    }
+
+    void flushAll(String reason) {
+        log.info("Flushing catalog caches: {}", reason);
+        flushes.increment();
+        eventPublisher.publishEvent(new CatalogFlushEvent(reason));
+    }
+
+    List<String> drainOutbox(List<Change> pending) {
+        outbox.drainTo(pending);
+        if (outboxOverflowed.getAndSet(false)) {
+            return List.of(InvalidationMessage.flushAll(origin, versions.incrementAndGet()).encode());
+        }
+        List<String> payloads = new ArrayList<>();
+        for (List<Change> batch : InvalidationMessage.partition(origin, new LinkedHashSet<>(pending), MAX_PAYLOAD_BYTES)) {
+            payloads.add(new InvalidationMessage(origin, versions.incrementAndGet(), false, batch).encode());
+        }
+        return payloads;
+    }
+
+    private void apply(List<Change> changes) {
+        Map<ProductCategory, Set<Long>> ids = new EnumMap<>(ProductCategory.class);
+        for (Change change : changes) {
+            ids.computeIfAbsent(change.category(), category -> new LinkedHashSet<>()).add(change.id());
+        }
+        APPLYING_REMOTE.set(true);
+        try {
+            for (Map.Entry<ProductCategory, Set<Long>> entry : ids.entrySet()) {
+                CrudRepository<? extends Product, Long> repository = repositories.get(entry.getKey());
+                for (Product product : ReadWriteRoutingDataSource.onPrimary(() -> repository.findAllById(entry.getValue()))) {
+                    eventPublisher.publishEvent(new ProductSavedEvent(entry.getKey(), product));
+                }
+            }
+        } finally {
+            APPLYING_REMOTE.remove();
+        }
+    }
+
+    private void sendLoop() {
+        while (running || !outbox.isEmpty()) {
+            try {
+                Change first = outbox.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null && !outboxOverflowed.get()) {
+                    continue;
+                }
+                List<Change> pending = new ArrayList<>();
+                if (first != null) {
+                    pending.add(first);
+                }
+                Thread.sleep(batchIntervalMs);
+                for (String payload : drainOutbox(pending)) {
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, payload);
+                    sentMessages.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not publish catalog invalidation, peers will flush on the version gap", e);
+            }
+        }
+    }
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    lastVersions.clear();
+                    flushAll("invalidation listener reconnected");
+                }
+                connectedBefore = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Invalidation listener lost its connection, retrying in {} ms", reconnectBackoffMs, e);
+                try {
+                    Thread.sleep(reconnectBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package testtask.shift.shopapi.service.invalidation;
+
+import testtask.shift.shopapi.model.ProductCategory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public record InvalidationMessage(String origin, long version, boolean flushAll, List<Change> changes) {
+    static final String FORMAT = "v1";
+    static final String FLUSH_ALL = "*";
+
+    public String encode() {
+        StringBuilder payload = header(origin, version);
+        if (flushAll) {
+            return payload.append(FLUSH_ALL).toString();
+        }
+        for (int i = 0; i < changes.size(); i++) {
+            payload.append(i == 0 ? "" : ",").append(changes.get(i).encode());
+        }
+        return payload.toString();
+    }
+
+    public static InvalidationMessage flushAll(String origin, long version) {
+        return new InvalidationMessage(origin, version, true, List.of());
+    }
+
+    public static List<List<Change>> partition(String origin, Collection<Change> changes, int maxPayloadBytes) {
+        int headerBytes = header(origin, Long.MAX_VALUE).length();
+        List<List<Change>> batches = new ArrayList<>();
+        List<Change> batch = new ArrayList<>();
+        int bytes = headerBytes;
+        for (Change change : changes) {
+            int size = change.encode().getBytes(StandardCharsets.UTF_8).length + 1;
+            if (!batch.isEmpty() && bytes + size > maxPayloadBytes) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                bytes = headerBytes;
+            }
+            batch.add(change);
+            bytes += size;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    public static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4 || !FORMAT.equals(parts[0])) {
+            throw new IllegalArgumentException("Unsupported invalidation payload: " + payload);
+        }
+        long version;
+        try {
+            version = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid invalidation version: " + parts[2], e);
+        }
+        if (FLUSH_ALL.equals(parts[3])) {
+            return flushAll(parts[1], version);
+        }
+        List<Change> changes = new ArrayList<>();
+        for (String change : parts[3].split(",")) {
+            changes.add(Change.decode(change));
+        }
+        return new InvalidationMessage(parts[1], version, false, List.copyOf(changes));
+    }
+
+    private static StringBuilder header(String origin, long version) {
+        return new StringBuilder(FORMAT).append('|').append(origin).append('|').append(version).append('|');
+    }
+
+    public record Change(ProductCategory category, long id) {
+        String encode() {
+            return category.getPath() + ":" + id;
+        }
+
+        static Change decode(String value) {
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid invalidation entry: " + value);
+            }
+            try {
+                return new Change(ProductCategory.fromName(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid invalidation entry: " + value, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package testtask.shift.shopapi.service.search;
+
+import testtask.shift.shopapi.model.ProductCategory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TrigramIndex {
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final Comparator<TermMatch> RANKING = Comparator.comparingDouble(TermMatch::score).reversed()
+            .thenComparingInt(TermMatch::term);
+
+    private final double similarityThreshold;
+    private final int maxCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PostingList> trigramTerms = new HashMap<>();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private String[] terms = new String[1024];
+    private String[] termDisplays = new String[1024];
+    private int[] termFirstDocuments = new int[1024];
+    private PostingList[] termDocuments = new PostingList[1024];
+    private int termCount;
+
+    private final DocumentKeys liveDocuments = new DocumentKeys();
+    private final BitSet replaced = new BitSet();
+    private int replacedCount;
+    private ProductCategory[] categories = new ProductCategory[1024];
+    private long[] ids = new long[1024];
+    private String[] producers = new String[1024];
+    private String[] seriesNumbers = new String[1024];
+    private int documentCount;
+
+    public TrigramIndex(double similarityThreshold, int maxCandidates) {
+        if (similarityThreshold <= 0.0 || similarityThreshold > 1.0) {
+            throw new IllegalArgumentException("similarityThreshold must be within (0, 1]");
+        }
+        this.similarityThreshold = similarityThreshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int terms() {
+        lock.readLock().lock();
+        try {
+            return termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            trigramTerms.clear();
+            termIds.clear();
+            Arrays.fill(terms, 0, termCount, null);
+            Arrays.fill(termDisplays, 0, termCount, null);
+            Arrays.fill(termDocuments, 0, termCount, null);
+            termCount = 0;
+
+            liveDocuments.clear();
+            replaced.clear();
+            replacedCount = 0;
+            Arrays.fill(categories, 0, documentCount, null);
+            Arrays.fill(producers, 0, documentCount, null);
+            Arrays.fill(seriesNumbers, 0, documentCount, null);
+            documentCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(ProductCategory category, long id, String producer, String seriesNumber) {
+        long key = (id << 2) | category.ordinal();
+
+        lock.writeLock().lock();
+        try {
+            int previous = liveDocuments.get(key);
+            if (previous >= 0) {
+                if (same(producers[previous], producer) && same(seriesNumbers[previous], seriesNumber)) {
+                    return;
+                }
+                replaced.set(previous);
+                replacedCount++;
+            }
+
+            insert(key, category, id, producer, seriesNumber);
+            if (replacedCount * 4 > documentCount) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(String query, int offset, int limit) {
+        String normalized = normalize(query);
+        if (normalized.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must contain at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        long[] paddedTrigrams = distinct(trigrams(pad(normalized)));
+        long[] innerTrigrams = distinct(trigrams(normalized));
+        int requiredShared = Math.max(1, (int) Math.ceil(similarityThreshold * paddedTrigrams.length));
+
+        lock.readLock().lock();
+        try {
+            TermScan scan = new TermScan();
+
+            PostingList[] innerLists = lists(innerTrigrams);
+            PostingList shortest = innerLists[0];
+            for (int i = 0; i < shortest.size && !scan.truncated; i++) {
+                int term = shortest.values[i];
+                if (containsAll(innerLists, term) && terms[term].contains(normalized)) {
+                    scan.accept(term, 0.5 + 0.5 * normalized.length() / terms[term].length());
+                }
+            }
+
+            PostingList[] paddedLists = lists(paddedTrigrams);
+            int prefixLists = paddedLists.length - requiredShared + 1;
+            int[] prefixTerms = concat(paddedLists, prefixLists);
+            Arrays.sort(prefixTerms);
+            for (int i = 0; i < prefixTerms.length && !scan.truncated; ) {
+                int term = prefixTerms[i];
+                int shared = 0;
+                while (i < prefixTerms.length && prefixTerms[i] == term) {
+                    shared++;
+                    i++;
+                }
+                for (int j = prefixLists; j < paddedLists.length && shared + paddedLists.length - j >= requiredShared; j++) {
+                    if (paddedLists[j].contains(term)) {
+                        shared++;
+                    }
+                }
+                if (shared >= requiredShared) {
+                    scan.accept(term, 0.5 * shared / paddedTrigrams.length);
+                }
+            }
+
+            scan.matches.sort(RANKING);
+            return expand(scan.matches, offset, limit, scan.truncated);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Result expand(List<TermMatch> matches, int offset, int limit, boolean truncated) {
+        BitSet emitted = new BitSet(documentCount);
+        List<Hit> hits = new ArrayList<>(limit);
+        long total = 0L;
+        for (TermMatch match : matches) {
+            PostingList documents = termDocuments[match.term()];
+            int count = documents != null ? documents.size : 1;
+            for (int i = 0; i < count; i++) {
+                int document = documents != null ? documents.values[i] : termFirstDocuments[match.term()];
+                if (replaced.get(document) || emitted.get(document)) {
+                    continue;
+                }
+                emitted.set(document);
+                if (total++ >= offset && hits.size() < limit) {
+                    hits.add(new Hit(categories[document], ids[document], producers[document],
+                            seriesNumbers[document], match.score()));
+                }
+            }
+        }
+        return new Result(hits, total, truncated);
+    }
+
+    private void insert(long key, ProductCategory category, long id, String producer, String seriesNumber) {
+        int document = appendDocument(category, id);
+        liveDocuments.put(key, document);
+        producers[document] = link(document, producer);
+        seriesNumbers[document] = link(document, seriesNumber);
+    }
+
+    private void compact() {
+        int previousCount = documentCount;
+        BitSet previousReplaced = (BitSet) replaced.clone();
+        ProductCategory[] previousCategories = categories;
+        long[] previousIds = ids;
+        String[] previousProducers = producers;
+        String[] previousSeriesNumbers = seriesNumbers;
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, previousCount - replacedCount)) * 2);
+        trigramTerms.clear();
+        termIds.clear();
+        terms = new String[capacity];
+        termDisplays = new String[capacity];
+        termFirstDocuments = new int[capacity];
+        termDocuments = new PostingList[capacity];
+        termCount = 0;
+        liveDocuments.clear();
+        replaced.clear();
+        replacedCount = 0;
+        categories = new ProductCategory[capacity];
+        ids = new long[capacity];
+        producers = new String[capacity];
+        seriesNumbers = new String[capacity];
+        documentCount = 0;
+
+        for (int document = previousReplaced.nextClearBit(0); document < previousCount;
+             document = previousReplaced.nextClearBit(document + 1)) {
+            ProductCategory category = previousCategories[document];
+            long id = previousIds[document];
+            insert((id << 2) | category.ordinal(), category, id,
+                    previousProducers[document], previousSeriesNumbers[document]);
+        }
+    }
+
+    private String link(int document, String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            return value;
+        }
+
+        Integer term = termIds.get(normalized);
+        if (term == null) {
+            term = appendTerm(normalized, value, document);
+            termIds.put(normalized, term);
+            for (long trigram : distinct(trigrams(pad(normalized)))) {
+                trigramTerms.computeIfAbsent(trigram, ignored -> new PostingList()).add(term);
+            }
+        } else if (termFirstDocuments[term] != document) {
+            if (termDocuments[term] == null) {
+                termDocuments[term] = new PostingList();
+                termDocuments[term].add(termFirstDocuments[term]);
+            }
+            termDocuments[term].add(document);
+        }
+        return value.equals(termDisplays[term]) ? termDisplays[term] : value;
+    }
+
+    private int appendTerm(String normalized, String display, int document) {
+        if (termCount == terms.length) {
+            int capacity = terms.length * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            termDisplays = Arrays.copyOf(termDisplays, capacity);
+            termFirstDocuments = Arrays.copyOf(termFirstDocuments, capacity);
+            termDocuments = Arrays.copyOf(termDocuments, capacity);
+        }
+        terms[termCount] = normalized;
+        termDisplays[termCount] = display;
+        termFirstDocuments[termCount] = document;
+        return termCount++;
+    }
+
+    private int appendDocument(ProductCategory category, long id) {
+        if (documentCount == ids.length) {
+            int capacity = ids.length * 2;
+            categories = Arrays.copyOf(categories, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            producers = Arrays.copyOf(producers, capacity);
+            seriesNumbers = Arrays.copyOf(seriesNumbers, capacity);
+        }
+        categories[documentCount] = category;
+        ids[documentCount] = id;
+        return documentCount++;
+    }
+
+    private PostingList[] lists(long[] trigrams) {
+        PostingList[] lists = new PostingList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = trigramTerms.getOrDefault(trigrams[i], PostingList.EMPTY);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+        return lists;
+    }
+
+    private static int[] concat(PostingList[] lists, int count) {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            size += lists[i].size;
+        }
+        int[] values = new int[size];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(lists[i].values, 0, values, offset, lists[i].size);
+            offset += lists[i].size;
+        }
+        return values;
+    }
+
+    private static boolean containsAll(PostingList[] lists, int value) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String pad(String value) {
+        return "  " + value + " ";
+    }
+
+    static long[] trigrams(String value) {
+        if (value.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[value.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+        }
+        return trigrams;
+    }
+
+    private static long[] distinct(long[] values) {
+        if (values.length == 0) {
+            return values;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int unique = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    private static boolean same(String left, String right) {
+        return left == null ? right == null : left.equals(right);
+    }
+
+    public record Hit(ProductCategory category, long id, String producer, String seriesNumber, double score) {
+    }
+
+    public record Result(List<Hit> hits, long totalMatches, boolean truncated) {
+    }
+
+    private record TermMatch(int term, double score) {
+    }
+
+    private final class TermScan {
+        private final BitSet seen = new BitSet(termCount);
+        private final List<TermMatch> matches = new ArrayList<>();
+        private int examined;
+        private boolean truncated;
+
+        private void accept(int term, double score) {
+            if (seen.get(term)) {
+                return;
+            }
+            if (++examined > maxCandidates) {
+                truncated = true;
+                return;
+            }
+            seen.set(term);
+            matches.add(new TermMatch(term, score));
+        }
+    }
+
+    private static final class DocumentKeys {
+        private long[] keys = new long[1024];
+        private int[] documents = emptyTable(1024);
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; documents[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return documents[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void put(long key, int document) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (documents[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (documents[slot] < 0) {
+                size++;
+            }
+            keys[slot] = key;
+            documents[slot] = document;
+            if (size * 3 > keys.length * 2) {
+                resize();
+            }
+        }
+
+        private void clear() {
+            keys = new long[1024];
+            documents = emptyTable(1024);
+            size = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldDocuments = documents;
+            keys = new long[oldKeys.length * 2];
+            documents = emptyTable(oldKeys.length * 2);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldDocuments[i] >= 0) {
+                    put(oldKeys[i], oldDocuments[i]);
+                }
+            }
+        }
+
+        private static int[] emptyTable(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, -1);
+            return table;
+        }
+
+        private static int hash(long key) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            return (int) key;
+        }
+    }
+
+    private static final class PostingList {
+        private static final PostingList EMPTY = new PostingList();
+
+        private int[] values = new int[2];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
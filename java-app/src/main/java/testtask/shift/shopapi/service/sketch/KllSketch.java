@@ -0,0 +1,196 @@
+package testtask.shift.shopapi.service.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class KllSketch {
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private final SplittableRandom random;
+    private final List<double[]> levels = new ArrayList<>();
+    private final List<Integer> levelSizes = new ArrayList<>();
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double[] sortedValues;
+    private long[] cumulativeWeights;
+
+    public KllSketch(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    KllSketch(int k, SplittableRandom random) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        this.random = random;
+        grow();
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized int getRetainedItems() {
+        return retained;
+    }
+
+    public double getNormalizedRankError() {
+        return 2.446 / Math.pow(k, 0.9433);
+    }
+
+    public synchronized void update(double value) {
+        append(0, value);
+        count++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    public void merge(KllSketch other) {
+        double[][] otherLevels;
+        int[] otherSizes;
+        long otherCount;
+        synchronized (other) {
+            otherLevels = new double[other.levels.size()][];
+            otherSizes = new int[other.levels.size()];
+            for (int h = 0; h < otherLevels.length; h++) {
+                otherSizes[h] = other.levelSizes.get(h);
+                otherLevels[h] = Arrays.copyOf(other.levels.get(h), otherSizes[h]);
+            }
+            otherCount = other.count;
+        }
+
+        synchronized (this) {
+            while (levels.size() < otherLevels.length) {
+                grow();
+            }
+            for (int h = 0; h < otherLevels.length; h++) {
+                for (int i = 0; i < otherSizes[h]; i++) {
+                    append(h, otherLevels[h][i]);
+                }
+            }
+            count += otherCount;
+            while (retained >= maxRetained) {
+                compress();
+            }
+        }
+    }
+
+    public synchronized double quantile(double rank) {
+        if (rank < 0.0 || rank > 1.0) {
+            throw new IllegalArgumentException("rank must be within [0, 1]");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        if (sortedValues == null) {
+            sortView();
+        }
+        double target = rank * cumulativeWeights[cumulativeWeights.length - 1];
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] >= target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return sortedValues[low];
+    }
+
+    private void sortView() {
+        int height = levels.size();
+        double[][] sortedLevels = new double[height][];
+        for (int h = 0; h < height; h++) {
+            sortedLevels[h] = Arrays.copyOf(levels.get(h), levelSizes.get(h));
+            Arrays.sort(sortedLevels[h]);
+        }
+
+        double[] values = new double[retained];
+        long[] cumulative = new long[retained];
+        int[] positions = new int[height];
+        long total = 0L;
+        for (int n = 0; n < retained; n++) {
+            int next = -1;
+            for (int h = 0; h < height; h++) {
+                if (positions[h] < sortedLevels[h].length
+                        && (next < 0 || sortedLevels[h][positions[h]] < sortedLevels[next][positions[next]])) {
+                    next = h;
+                }
+            }
+            values[n] = sortedLevels[next][positions[next]++];
+            total += 1L << next;
+            cumulative[n] = total;
+        }
+        sortedValues = values;
+        cumulativeWeights = cumulative;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.size() - level - 1;
+        return (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)) + 1;
+    }
+
+    private void grow() {
+        levels.add(new double[8]);
+        levelSizes.add(0);
+        maxRetained = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    private void append(int level, double value) {
+        double[] items = levels.get(level);
+        int size = levelSizes.get(level);
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(level, items);
+        }
+        items[size] = value;
+        levelSizes.set(level, size + 1);
+        retained++;
+        sortedValues = null;
+        cumulativeWeights = null;
+    }
+
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            int size = levelSizes.get(h);
+            if (size < capacity(h)) {
+                continue;
+            }
+            if (h + 1 >= levels.size()) {
+                grow();
+            }
+
+            double[] items = levels.get(h);
+            Arrays.sort(items, 0, size);
+            int pairs = size / 2;
+            int offset = random.nextInt(2);
+            for (int i = 0; i < pairs; i++) {
+                append(h + 1, items[2 * i + offset]);
+            }
+
+            int leftover = size - 2 * pairs;
+            if (leftover == 1) {
+                items[0] = items[size - 1];
+            }
+            levelSizes.set(h, leftover);
+            retained -= 2 * pairs;
+            return;
+        }
+    }
+}
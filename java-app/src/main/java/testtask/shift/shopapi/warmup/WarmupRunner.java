@@ -0,0 +1,229 @@
+package testtask.shift.shopapi.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.service.CatalogScanner;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shop.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner {
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final String ID = "{id}";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Environment environment;
+    private final ObjectProvider<HikariDataSource> pools;
+    private final CatalogScanner catalogScanner;
+    private final List<String> prefillPaths;
+    private final List<String> paths;
+    private final int minRounds;
+    private final int maxRounds;
+    private final int stableRounds;
+    private final long stableCompilationMs;
+    private final Duration budget;
+    private final Duration requestTimeout;
+    private final Timer duration;
+    private final Counter rounds;
+    private final Counter succeededCalls;
+    private final Counter failedCalls;
+    private final HttpClient httpClient;
+
+    public WarmupRunner(ApplicationEventPublisher eventPublisher,
+                        Environment environment,
+                        ObjectProvider<HikariDataSource> pools,
+                        CatalogScanner catalogScanner,
+                        MeterRegistry meterRegistry,
+                        @Value("${shop.warmup.prefill-paths:/api/stats,/api/stats/insights}") List<String> prefillPaths,
+                        @Value("${shop.warmup.paths:/api/stats/cardinality}") List<String> paths,
+                        @Value("${shop.warmup.min-rounds:20}") int minRounds,
+                        @Value("${shop.warmup.max-rounds:2000}") int maxRounds,
+                        @Value("${shop.warmup.stable-rounds:10}") int stableRounds,
+                        @Value("${shop.warmup.stable-compilation-ms:2}") long stableCompilationMs,
+                        @Value("${shop.warmup.budget-ms:30000}") long budgetMs,
+                        @Value("${shop.warmup.request-timeout-ms:30000}") long requestTimeoutMs) {
+        if (minRounds < 0 || maxRounds < minRounds) {
+            throw new IllegalArgumentException("shop.warmup.max-rounds must not be less than shop.warmup.min-rounds");
+        }
+        this.eventPublisher = eventPublisher;
+        this.environment = environment;
+        this.pools = pools;
+        this.catalogScanner = catalogScanner;
+        this.prefillPaths = prefillPaths;
+        this.paths = paths;
+        this.minRounds = minRounds;
+        this.maxRounds = maxRounds;
+        this.stableRounds = stableRounds;
+        this.stableCompilationMs = stableCompilationMs;
+        this.budget = Duration.ofMillis(budgetMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.duration = Timer.builder("shop.warmup.duration")
+                .description("Time spent warming up before accepting traffic")
+                .register(meterRegistry);
+        this.rounds = meterRegistry.counter("shop.warmup.rounds");
+        this.succeededCalls = meterRegistry.counter("shop.warmup.calls", "result", "success");
+        this.failedCalls = meterRegistry.counter("shop.warmup.calls", "result", "failure");
+        this.httpClient = HttpClient.newBuilder().connectTimeout(requestTimeout).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        long started = System.nanoTime();
+        long deadline = started + budget.toNanos();
+        long compilationBefore = compilationMs();
+
+        int connections = 0;
+        for (HikariDataSource pool : pools) {
+            connections += fill(pool);
+        }
+
+        String port = environment.getProperty("local.server.port");
+        List<String> targets = List.of();
+        if (port == null) {
+            log.warn("No local web server, skipping warm-up requests");
+        } else {
+            for (String path : prefillPaths) {
+                get(port, path);
+            }
+            targets = resolve(paths);
+        }
+
+        long compilation = compilationMs();
+        int round = 0;
+        int stable = 0;
+        while (!targets.isEmpty() && round < maxRounds && (round < minRounds || stable < stableRounds)
+                && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            int succeeded = runRound(port, targets);
+            rounds.increment();
+            round++;
+            if (succeeded == 0) {
+                log.warn("Every warm-up call failed in round {}, giving up", round);
+                break;
+            }
+            long now = compilationMs();
+            stable = now - compilation <= stableCompilationMs ? stable + 1 : 0;
+            compilation = now;
+        }
+
+        long elapsed = System.nanoTime() - started;
+        duration.record(Duration.ofNanos(elapsed));
+        log.info("Warm-up finished after {} rounds in {} ms ({} pool connections, {} ms of JIT compilation, {})",
+                round, elapsed / 1_000_000, connections, compilation - compilationBefore,
+                stable >= stableRounds ? "compilation settled" : "compilation still active");
+    }
+
+    private int fill(HikariDataSource pool) {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            do {
+                opened.add(pool.getConnection());
+            } while (opened.size() < pool.getMinimumIdle());
+        } catch (SQLException e) {
+            log.warn("Could not open {} connections of pool {}", pool.getMinimumIdle(), pool.getPoolName(), e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not return a warm-up connection to pool {}", pool.getPoolName(), e);
+                }
+            }
+        }
+        return opened.size();
+    }
+
+    private List<String> resolve(List<String> templates) {
+        List<String> resolved = new ArrayList<>(templates.size());
+        for (String path : templates) {
+            if (!path.contains(ID)) {
+                resolved.add(path);
+                continue;
+            }
+            Long id = null;
+            for (ProductCategory category : ProductCategory.values()) {
+                if (path.startsWith("/api/" + category.getPath() + "/")) {
+                    try {
+                        id = catalogScanner.firstId(category);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not look up a {} id for warm-up", category.getPath(), e);
+                    }
+                    break;
+                }
+            }
+            if (id != null) {
+                resolved.add(path.replace(ID, Long.toString(id)));
+            } else {
+                log.info("Skipping warm-up path {}: no existing product to request", path);
+            }
+        }
+        return resolved;
+    }
+
+    private int runRound(String port, List<String> targets) {
+        int succeeded = 0;
+        for (String path : targets) {
+            succeeded += get(port, path);
+        }
+        return succeeded;
+    }
+
+    private int get(String port, String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 200 && status < 300) {
+                succeededCalls.increment();
+                return 1;
+            }
+            log.debug("Warm-up request {} returned {}", path, status);
+        } catch (IOException e) {
+            log.debug("Warm-up request {} failed", path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failedCalls.increment();
+        return 0;
+    }
+
+    private static long compilationMs() {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        return compilation != null && compilation.isCompilationTimeMonitoringSupported()
+                ? compilation.getTotalCompilationTime()
+                : 0L;
+    }
+}
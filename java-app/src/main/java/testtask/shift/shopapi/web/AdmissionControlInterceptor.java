@@ -0,0 +1,85 @@
+package testtask.shift.shopapi.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import testtask.shift.shopapi.controller.StatsController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final Lane stats;
+    private final Lane read;
+    private final Lane write;
+    private final long retryAfterSeconds;
+
+    public AdmissionControlInterceptor(Bulkhead statsBulkhead,
+                                       Bulkhead readBulkhead,
+                                       AdaptiveConcurrencyLimiter readLimiter,
+                                       Bulkhead writeBulkhead,
+                                       AdaptiveConcurrencyLimiter writeLimiter,
+                                       long retryAfterSeconds) {
+        this.stats = new Lane(statsBulkhead, null);
+        this.read = new Lane(readBulkhead, readLimiter);
+        this.write = new Lane(writeBulkhead, writeLimiter);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        Lane lane = laneFor(request, handlerMethod);
+        if (!lane.bulkhead().tryAcquire()) {
+            reject(response, lane.bulkhead().getName() + " bulkhead is full");
+            return false;
+        }
+        if (lane.limiter() != null && !lane.limiter().tryAcquire()) {
+            lane.bulkhead().release();
+            reject(response, lane.bulkhead().getName() + " concurrency limit reached");
+            return false;
+        }
+
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(lane, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        Object attribute = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (attribute instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.lane().bulkhead().release();
+            if (permit.lane().limiter() != null) {
+                permit.lane().limiter().release(System.nanoTime() - permit.startedNanos());
+            }
+        }
+    }
+
+    private Lane laneFor(HttpServletRequest request, HandlerMethod handlerMethod) {
+        if (StatsController.class.isAssignableFrom(handlerMethod.getBeanType())) {
+            return stats;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) ? read : write;
+    }
+
+    private void reject(HttpServletResponse response, String reason) throws Exception {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, reason);
+    }
+
+    private record Lane(Bulkhead bulkhead, AdaptiveConcurrencyLimiter limiter) {
+    }
+
+    private record Permit(Lane lane, long startedNanos) {
+    }
+}
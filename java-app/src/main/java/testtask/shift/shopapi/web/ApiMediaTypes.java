@@ -0,0 +1,12 @@
+package testtask.shift.shopapi.web;
+
+import org.springframework.http.MediaType;
+
+public final class ApiMediaTypes {
+    public static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private ApiMediaTypes() {
+    }
+}
@@ -0,0 +1,35 @@
+package testtask.shift.shopapi.web;
+
+import java.util.concurrent.Semaphore;
+
+public class Bulkhead {
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrent) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,106 @@
+package testtask.shift.shopapi.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+import testtask.shift.shopapi.service.ResponseSnapshotService;
+import testtask.shift.shopapi.service.ResponseSnapshotService.Snapshot;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResponseSnapshotInterceptor implements HandlerInterceptor {
+    private static final List<MediaType> FORMATS = List.of(
+            MediaType.parseMediaType(ApiMediaTypes.JSON),
+            MediaType.parseMediaType(ApiMediaTypes.CBOR),
+            MediaType.parseMediaType(ApiMediaTypes.SMILE));
+
+    private final ResponseSnapshotService snapshotService;
+    private final Map<String, String> keysByPath = new HashMap<>();
+
+    public ResponseSnapshotInterceptor(ResponseSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+        for (ProductCategory category : ProductCategory.values()) {
+            keysByPath.put("/api/" + category.getPath(), category.getPath());
+            keysByPath.put("/api/" + category.getPath() + "/", category.getPath());
+        }
+        keysByPath.put("/api/stats", ResponseSnapshotService.STATS);
+        keysByPath.put("/api/stats/insights", ResponseSnapshotService.INSIGHTS);
+    }
+
+    public String[] getPathPatterns() {
+        return keysByPath.keySet().toArray(String[]::new);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getDispatcherType() != DispatcherType.REQUEST
+                || !HttpMethod.GET.matches(request.getMethod())
+                || request.getQueryString() != null
+                || ReadWriteRoutingDataSource.isPrimaryForced()) {
+            return true;
+        }
+        String key = keysByPath.get(request.getRequestURI().substring(request.getContextPath().length()));
+        String format = key != null ? negotiate(request.getHeader(HttpHeaders.ACCEPT)) : null;
+        Snapshot snapshot = format != null ? snapshotService.get(key, format) : null;
+        if (snapshot == null) {
+            return true;
+        }
+
+        byte[] body = snapshot.body();
+        if (snapshot.gzipped() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            body = snapshot.gzipped();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(snapshot.contentType());
+        response.setContentLength(body.length);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.getOutputStream().write(body);
+        return false;
+    }
+
+    static String negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return ApiMediaTypes.JSON;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(accepted);
+            for (MediaType mediaType : accepted) {
+                if (mediaType.getQualityValue() == 0.0) {
+                    continue;
+                }
+                for (MediaType format : FORMATS) {
+                    if (mediaType.isCompatibleWith(format)) {
+                        return format.toString();
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
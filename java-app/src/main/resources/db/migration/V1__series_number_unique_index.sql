@@ -0,0 +1,20 @@
+DO $$
+DECLARE
+    product_table text;
+    conflicts text;
+BEGIN
+    FOREACH product_table IN ARRAY ARRAY['laptop', 'monitor', 'personal_computer', 'hard_drive'] LOOP
+        EXECUTE format('SELECT string_agg(series_number || '' (id '' || ids || '')'', ''; '') FROM ('
+                || 'SELECT series_number, string_agg(id::text, '', '' ORDER BY id) AS ids FROM %I '
+                || 'WHERE series_number IS NOT NULL GROUP BY series_number HAVING count(*) > 1 '
+                || 'ORDER BY series_number LIMIT 100) duplicates', product_table)
+            INTO conflicts;
+        IF conflicts IS NOT NULL THEN
+            RAISE EXCEPTION 'Duplicate series numbers in %: %. Remove or renumber them, then restart to create the unique index.',
+                product_table, conflicts;
+        END IF;
+        EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I (series_number)',
+                product_table || '_series_number_key', product_table);
+    END LOOP;
+END
+$$;
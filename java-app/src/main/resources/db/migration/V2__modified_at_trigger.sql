@@ -0,0 +1,20 @@
+CREATE OR REPLACE FUNCTION touch_modified_at() RETURNS trigger AS $$
+BEGIN
+    NEW.modified_at := now();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    product_table text;
+BEGIN
+    FOREACH product_table IN ARRAY ARRAY['laptop', 'monitor', 'personal_computer', 'hard_drive'] LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                       WHERE tgrelid = product_table::regclass AND tgname = product_table || '_touch_modified_at') THEN
+            EXECUTE format('CREATE TRIGGER %I BEFORE INSERT OR UPDATE ON %I FOR EACH ROW EXECUTE FUNCTION touch_modified_at()',
+                    product_table || '_touch_modified_at', product_table);
+        END IF;
+    END LOOP;
+END
+$$;
@@ -0,0 +1,144 @@
+package testtask.shift.shopapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.repository.ProductProjection;
+import testtask.shift.shopapi.service.LaptopService;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = LaptopController.class)
+class LaptopControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LaptopService laptopService;
+
+    @Test
+    void returnsFullEntitiesWithoutFields() throws Exception {
+        when(laptopService.getAllLaptops()).thenReturn(List.of(
+                new Laptop(1L, "LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14)));
+
+        mockMvc.perform(get("/api/laptops").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].seriesNumber").value("LN-1"))
+                .andExpect(jsonPath("$[0].size").value("14 inches"));
+    }
+
+    @Test
+    void writesOnlyRequestedFields() throws Exception {
+        when(laptopService.getAllLaptops(List.of("id", "price"))).thenReturn(new ProductProjection(List.of("id", "price"),
+                List.<Object[]>of(new Object[]{1L, new BigDecimal("150.00")})));
+
+        mockMvc.perform(get("/api/laptops").param("fields", "id,price").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].price").value(150.00))
+                .andExpect(jsonPath("$[0].seriesNumber").doesNotExist());
+        verify(laptopService, never()).getAllLaptops();
+    }
+
+    @Test
+    void rejectsUnknownFields() throws Exception {
+        when(laptopService.getAllLaptops(List.of("id", "color")))
+                .thenThrow(new IllegalArgumentException("Unknown fields for laptops: color"));
+
+        mockMvc.perform(get("/api/laptops").param("fields", "id,color").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsDuplicateSeriesNumberWithConflict() throws Exception {
+        when(laptopService.save(any(Laptop.class))).thenThrow(violation("laptop_series_number_key"));
+
+        mockMvc.perform(post("/api/laptops/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seriesNumber\":\"LN-1\",\"producer\":\"Lenovo\",\"price\":150.00}")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void leavesOtherConstraintViolationsToDefaultHandling() {
+        when(laptopService.save(any(Laptop.class))).thenThrow(violation("laptop_pkey"));
+
+        assertThatThrownBy(() -> mockMvc.perform(post("/api/laptops/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"seriesNumber\":\"LN-1\",\"producer\":\"Lenovo\",\"price\":150.00}")
+                .accept(MediaType.APPLICATION_JSON)))
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void rejectsUpsertWithoutSeriesNumber() throws Exception {
+        when(laptopService.upsert(anyList())).thenThrow(new IllegalArgumentException("seriesNumber is required for upsert"));
+
+        mockMvc.perform(put("/api/laptops/upsert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"producer\":\"Lenovo\"}]")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void encodesCborWhenRequested() throws Exception {
+        when(laptopService.getLaptop(1L)).thenReturn(new Laptop(1L, "LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14));
+
+        byte[] body = mockMvc.perform(get("/api/laptops/1").accept(ApiMediaTypes.CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ApiMediaTypes.CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode laptop = new CBORMapper().readTree(body);
+        assertThat(laptop.get("seriesNumber").asText()).isEqualTo("LN-1");
+        assertThat(laptop.get("size").asText()).isEqualTo("14 inches");
+    }
+
+    @Test
+    void encodesSmileWhenRequested() throws Exception {
+        when(laptopService.getAllLaptops()).thenReturn(List.of(
+                new Laptop(1L, "LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14)));
+
+        byte[] body = mockMvc.perform(get("/api/laptops").accept(ApiMediaTypes.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ApiMediaTypes.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new SmileMapper().readTree(body).get(0).get("producer").asText()).isEqualTo("Lenovo");
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("duplicate", "23505"), constraint));
+    }
+}
@@ -0,0 +1,115 @@
+package testtask.shift.shopapi.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ProductEditPostgresTest {
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private HardDriveRepository hardDriveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyTables() {
+        jdbcTemplate.execute("TRUNCATE laptop, hard_drive");
+    }
+
+    @Test
+    void persistsEditedLaptop() throws Exception {
+        Laptop laptop = laptopRepository.save(new Laptop("LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14));
+
+        mockMvc.perform(put("/api/laptops/{id}", laptop.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seriesNumber\":\"LN-1\",\"producer\":\"Lenovo\",\"price\":175.00,"
+                                + "\"numberOfProductsInStock\":2,\"size\":\"15 inches\"}"))
+                .andExpect(status().isOk());
+
+        Laptop stored = laptopRepository.findById(laptop.getId()).orElseThrow();
+        assertThat(stored.getPrice()).isEqualByComparingTo("175.00");
+        assertThat(stored.getNumberOfProductsInStock()).isEqualTo(2L);
+        assertThat(stored.getSize()).isEqualTo(LaptopSize.Inch15);
+        mockMvc.perform(get("/api/laptops/{id}", laptop.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(175.00));
+    }
+
+    @Test
+    void persistsEditedHardDrive() throws Exception {
+        HardDrive hardDrive = hardDriveRepository.save(new HardDrive("HD-1", "Seagate", new BigDecimal("60.00"), 5L, 1024));
+
+        mockMvc.perform(put("/api/hdds/{id}", hardDrive.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seriesNumber\":\"HD-1\",\"producer\":\"Seagate\",\"price\":55.00,"
+                                + "\"numberOfProductsInStock\":5,\"capacity\":2048}"))
+                .andExpect(status().isOk());
+
+        HardDrive stored = hardDriveRepository.findById(hardDrive.getId()).orElseThrow();
+        assertThat(stored.getPrice()).isEqualByComparingTo("55.00");
+        assertThat(stored.getCapacity()).isEqualTo(2048.0);
+    }
+
+    @Test
+    void rejectsEditOfMissingLaptop() throws Exception {
+        mockMvc.perform(put("/api/laptops/{id}", 42L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seriesNumber\":\"LN-1\",\"producer\":\"Lenovo\",\"price\":175.00}"))
+                .andExpect(status().isNotFound());
+        assertThat(laptopRepository.count()).isZero();
+    }
+
+    @Test
+    void rejectsEditToTakenSeriesNumberWithConflict() throws Exception {
+        laptopRepository.save(new Laptop("LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14));
+        Laptop other = laptopRepository.save(new Laptop("LN-2", "Lenovo", new BigDecimal("160.00"), 3L, LaptopSize.Inch14));
+
+        mockMvc.perform(put("/api/laptops/{id}", other.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seriesNumber\":\"LN-1\",\"producer\":\"Lenovo\",\"price\":160.00}"))
+                .andExpect(status().isConflict());
+        assertThat(laptopRepository.findById(other.getId()).orElseThrow().getSeriesNumber()).isEqualTo("LN-2");
+    }
+}
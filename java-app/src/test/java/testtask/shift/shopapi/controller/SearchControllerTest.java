@@ -0,0 +1,49 @@
+package testtask.shift.shopapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import testtask.shift.shopapi.model.search.SearchHit;
+import testtask.shift.shopapi.model.search.SearchResponse;
+import testtask.shift.shopapi.service.ProductSearchService;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = SearchController.class)
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    @Test
+    void returnsRankedPage() throws Exception {
+        when(productSearchService.search("4471", 1, 10)).thenReturn(new SearchResponse("4471", 1, 10, 11, false,
+                List.of(new SearchHit("hardDrives", 2L, "Seagate", "ST-4471", 0.786))));
+
+        mockMvc.perform(get("/api/products/search").param("q", "4471").param("page", "1").param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalMatches").value(11))
+                .andExpect(jsonPath("$.hits[0].category").value("hardDrives"))
+                .andExpect(jsonPath("$.hits[0].seriesNumber").value("ST-4471"));
+    }
+
+    @Test
+    void rejectsTooShortQuery() throws Exception {
+        when(productSearchService.search("ab", 0, 20)).thenThrow(new IllegalArgumentException("Query must contain at least 3 characters"));
+
+        mockMvc.perform(get("/api/products/search").param("q", "ab").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
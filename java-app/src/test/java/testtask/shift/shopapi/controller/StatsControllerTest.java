@@ -4,19 +4,40 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import testtask.shift.shopapi.model.analytics.StatsResponse;
 import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
 import testtask.shift.shopapi.model.analytics.CategoryMetrics;
+import testtask.shift.shopapi.model.analytics.HistoryResolution;
+import testtask.shift.shopapi.model.analytics.PriceDistribution;
+import testtask.shift.shopapi.model.analytics.CategoryProducerBreakdown;
+import testtask.shift.shopapi.model.analytics.ProducerBreakdownResponse;
+import testtask.shift.shopapi.model.analytics.ProducerMetrics;
+import testtask.shift.shopapi.model.analytics.StatsHistoryPoint;
+import testtask.shift.shopapi.model.analytics.StatsHistoryResponse;
+import testtask.shift.shopapi.service.AsyncStatsService;
+import testtask.shift.shopapi.service.StatsHistoryService;
 import testtask.shift.shopapi.service.StatsService;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = StatsController.class)
+@Import(AsyncStatsService.class)
 class StatsControllerTest {
 
     @Autowired
@@ -25,13 +46,21 @@ class StatsControllerTest {
     @MockBean
     private StatsService statsService;
 
+    @MockBean
+    private StatsHistoryService statsHistoryService;
+
     @Test
     void returnsAggregatedStatistics() throws Exception {
         StatsResponse statsResponse = new StatsResponse(10, 3, 2, 4, 1, 17);
         when(statsService.getStats()).thenReturn(statsResponse);
 
-        mockMvc.perform(get("/api/stats").accept(MediaType.APPLICATION_JSON))
+        MvcResult result = mockMvc.perform(get("/api/stats").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Warning"))
                 .andExpect(jsonPath("$.totalProducts").value(10))
                 .andExpect(jsonPath("$.laptops").value(3))
                 .andExpect(jsonPath("$.monitors").value(2))
@@ -45,21 +74,99 @@ class StatsControllerTest {
         StatsInsightsResponse insightsResponse = new StatsInsightsResponse(
                 4,
                 3,
-                new java.math.BigDecimal("40.00"),
-                java.util.List.of(
-                        new CategoryMetrics("laptops", 2, 3, new java.math.BigDecimal("15.00"), new java.math.BigDecimal("40.00")),
-                        new CategoryMetrics("monitors", 1, 0, new java.math.BigDecimal("100.00"), new java.math.BigDecimal("0"))
+                new BigDecimal("40.00"),
+                List.of(
+                        new CategoryMetrics("laptops", 2, 3, new BigDecimal("15.00"), new BigDecimal("40.00"),
+                                new PriceDistribution(2, new BigDecimal("10.00"), new BigDecimal("20.00"), new BigDecimal("20.00"), 0.0135)),
+                        new CategoryMetrics("monitors", 1, 0, new BigDecimal("100.00"), new BigDecimal("0"), null)
                 )
         );
 
         when(statsService.getInsights()).thenReturn(insightsResponse);
 
-        mockMvc.perform(get("/api/stats/insights").accept(MediaType.APPLICATION_JSON))
+        MvcResult result = mockMvc.perform(get("/api/stats/insights").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalProducts").value(4))
                 .andExpect(jsonPath("$.categories[0].category").value("laptops"))
                 .andExpect(jsonPath("$.categories[0].averagePrice").value(15.00))
                 .andExpect(jsonPath("$.categories[0].inventoryValue").value(40.00))
+                .andExpect(jsonPath("$.categories[0].priceDistribution.medianPrice").value(10.00))
+                .andExpect(jsonPath("$.categories[0].priceDistribution.p99Price").value(20.00))
                 .andExpect(jsonPath("$.categories[1].stockUnits").value(0));
     }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void returnsServiceUnavailableWhenStatsFailWithoutPreviousResult() throws Exception {
+        when(statsService.getStats()).thenThrow(new IllegalStateException("database unavailable"));
+
+        MvcResult result = mockMvc.perform(get("/api/stats").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void rejectsNonPositiveStatsTimeout() throws Exception {
+        mockMvc.perform(get("/api/stats").param("timeoutMs", "0").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnsProducerBreakdown() throws Exception {
+        ProducerBreakdownResponse breakdown = new ProducerBreakdownResponse(1, List.of(
+                new CategoryProducerBreakdown("laptops", 3,
+                        List.of(new ProducerMetrics("Big", 2, 10, new BigDecimal("150.00"), new BigDecimal("1500.00"))),
+                        2, new ProducerMetrics("other", 4, 6, new BigDecimal("17.50"), new BigDecimal("110.00")))
+        ));
+        when(statsService.getProducerBreakdown(1)).thenReturn(breakdown);
+
+        mockMvc.perform(get("/api/stats/insights/by-producer").param("limit", "1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[0].topProducers[0].producer").value("Big"))
+                .andExpect(jsonPath("$.categories[0].otherProducers").value(2))
+                .andExpect(jsonPath("$.categories[0].other.stockUnits").value(6));
+    }
+
+    @Test
+    void rejectsProducerBreakdownLimitOutOfRange() throws Exception {
+        when(statsService.getProducerBreakdown(0)).thenThrow(new IllegalArgumentException("limit must be within [1, 100]"));
+
+        mockMvc.perform(get("/api/stats/insights/by-producer").param("limit", "0").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnsHistoryForRequestedResolution() throws Exception {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-01-02T00:00:00Z");
+        StatsHistoryResponse historyResponse = new StatsHistoryResponse(HistoryResolution.HOUR, from, to, List.of(
+                new StatsHistoryPoint(from, 60, 4, 3, new BigDecimal("40.00"))
+        ));
+
+        when(statsHistoryService.getHistory(eq(from), eq(to), eq(HistoryResolution.HOUR))).thenReturn(historyResponse);
+
+        mockMvc.perform(get("/api/stats/history")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("to", "2026-01-02T00:00:00Z")
+                        .param("resolution", "hour")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("HOUR"))
+                .andExpect(jsonPath("$.points[0].samples").value(60))
+                .andExpect(jsonPath("$.points[0].totalStockUnits").value(3));
+    }
+
+    @Test
+    void rejectsUnknownHistoryResolution() throws Exception {
+        mockMvc.perform(get("/api/stats/history").param("resolution", "week"))
+                .andExpect(status().isBadRequest());
+    }
 }
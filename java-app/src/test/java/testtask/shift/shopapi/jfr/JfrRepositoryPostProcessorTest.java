@@ -0,0 +1,66 @@
+package testtask.shift.shopapi.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.stereotype.Repository;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRepositoryPostProcessorTest {
+    private final JfrRepositoryPostProcessor postProcessor = new JfrRepositoryPostProcessor();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsCallsOfRepositoryAnnotatedBeans() throws Exception {
+        CatalogRepository repository = (CatalogRepository) postProcessor.postProcessAfterInitialization(
+                new CatalogRepository(), "catalogRepository");
+
+        List<RecordedEvent> events = record(() -> {
+            assertThat(repository.find()).isEqualTo("found");
+            assertThatThrownBy(repository::fail).isInstanceOf(IllegalStateException.class);
+        });
+
+        assertThat(events).extracting(event -> event.getString("repository")).containsOnly("catalogRepository");
+        assertThat(events).extracting(event -> event.getString("method")).containsExactly("find", "fail");
+        assertThat(events).extracting(event -> event.getBoolean("failed")).containsExactly(false, true);
+    }
+
+    @Test
+    void leavesOtherBeansUntouched() {
+        Object bean = new Object();
+
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "bean")).isSameAs(bean);
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("shop.RepositoryCall").withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    @Repository
+    static class CatalogRepository {
+        public String find() {
+            return "found";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+}
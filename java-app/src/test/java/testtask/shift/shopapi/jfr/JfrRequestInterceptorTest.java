@@ -0,0 +1,92 @@
+package testtask.shift.shopapi.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import testtask.shift.shopapi.controller.LaptopController;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class JfrRequestInterceptorTest {
+    private final JfrRequestInterceptor interceptor = new JfrRequestInterceptor();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsRequestEventWithEndpointCategoryAndStatus() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pcs/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/pcs/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        List<RecordedEvent> events = record("shop.Request", () -> {
+            interceptor.preHandle(request, response, laptopHandler());
+            interceptor.afterCompletion(request, response, laptopHandler(), null);
+        });
+
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("method")).isEqualTo("GET");
+        assertThat(event.getString("endpoint")).isEqualTo("/api/pcs/{id}");
+        assertThat(event.getString("category")).isEqualTo("personalComputers");
+        assertThat(event.getInt("status")).isEqualTo(404);
+    }
+
+    @Test
+    void skipsCommitWhileAsyncIsStarted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stats/insights");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        List<RecordedEvent> events = record("shop.Request", () -> {
+            interceptor.preHandle(request, response, laptopHandler());
+            request.startAsync();
+            interceptor.afterCompletion(request, response, laptopHandler(), null);
+        });
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void resolvesCategoryFromTemplateVariables() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/ingest/hdds");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("category", "hdds"));
+
+        assertThat(JfrRequestInterceptor.categoryOf(request)).isEqualTo("hardDrives");
+        assertThat(JfrRequestInterceptor.categoryOf(new MockHttpServletRequest("GET", "/api/stats"))).isNull();
+    }
+
+    private List<RecordedEvent> record(String eventName, ThrowingRunnable action) throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .toList();
+    }
+
+    private HandlerMethod laptopHandler() throws NoSuchMethodException {
+        return new HandlerMethod(mock(LaptopController.class), LaptopController.class.getMethod("getLaptops"));
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
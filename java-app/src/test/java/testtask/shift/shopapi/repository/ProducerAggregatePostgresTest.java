@@ -0,0 +1,119 @@
+package testtask.shift.shopapi.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ProducerAggregatePostgresTest {
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int seriesNumbers;
+
+    @BeforeEach
+    void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE laptop");
+    }
+
+    @Test
+    void ranksProducersAndFoldsTheRestIntoOther() {
+        laptopRepository.saveAll(List.of(
+                laptop("Big", "100.00", 5L), laptop("Big", "200.00", 5L),
+                laptop("Medium", "20.00", 2L), laptop("Medium", "20.00", 2L), laptop("Medium", "20.00", 1L),
+                laptop("Small", "10.00", 1L),
+                laptop("Unpriced", null, null),
+                laptop(null, "5.00", 0L)));
+
+        List<ProducerAggregate> rows = laptopRepository.aggregateByProducer(2);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows).extracting(ProducerAggregate::getTotalProducers).containsOnly(5L);
+        ProducerAggregate big = rows.get(0);
+        assertThat(big.getProducer()).isEqualTo("Big");
+        assertThat(big.getOther()).isFalse();
+        assertThat(big.getProducts()).isEqualTo(2L);
+        assertThat(big.getStockUnits()).isEqualTo(10L);
+        assertThat(big.getPriceTotal()).isEqualByComparingTo("300.00");
+        assertThat(big.getInventoryValue()).isEqualByComparingTo("1500.00");
+        assertThat(rows.get(1).getProducer()).isEqualTo("Medium");
+        assertThat(rows.get(1).getInventoryValue()).isEqualByComparingTo("100.00");
+
+        ProducerAggregate other = rows.get(2);
+        assertThat(other.getOther()).isTrue();
+        assertThat(other.getProducers()).isEqualTo(3L);
+        assertThat(other.getProducts()).isEqualTo(3L);
+        assertThat(other.getStockUnits()).isEqualTo(1L);
+        assertThat(other.getPriceTotal()).isEqualByComparingTo("15.00");
+        assertThat(other.getPricedProducts()).isEqualTo(2L);
+        assertThat(other.getInventoryValue()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void putsUnknownProducerLastAmongTies() {
+        laptopRepository.saveAll(List.of(laptop(null, "5.00", 0L), laptop("Unpriced", null, null), laptop("Small", "10.00", 1L)));
+
+        List<ProducerAggregate> rows = laptopRepository.aggregateByProducer(3);
+
+        assertThat(rows).extracting(ProducerAggregate::getProducer).containsExactly("Small", "Unpriced", null);
+        assertThat(rows).extracting(ProducerAggregate::getOther).containsOnly(false);
+        assertThat(rows.get(1).getInventoryValue()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void returnsAtMostLimitPlusOneRowsForManyProducers() {
+        List<Laptop> laptops = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            laptops.add(laptop("producer-" + i, Integer.toString(i), 1L));
+        }
+        laptopRepository.saveAll(laptops);
+
+        List<ProducerAggregate> rows = laptopRepository.aggregateByProducer(20);
+
+        assertThat(rows).hasSize(21);
+        assertThat(rows.get(0).getProducer()).isEqualTo("producer-499");
+        assertThat(rows.get(19).getProducer()).isEqualTo("producer-480");
+        assertThat(rows.get(20).getOther()).isTrue();
+        assertThat(rows.get(20).getProducers()).isEqualTo(480L);
+        assertThat(rows.get(20).getProducts()).isEqualTo(480L);
+    }
+
+    private Laptop laptop(String producer, String price, Long stock) {
+        return new Laptop("LN-" + ++seriesNumbers, producer, price != null ? new BigDecimal(price) : null, stock,
+                LaptopSize.Inch15);
+    }
+}
@@ -0,0 +1,99 @@
+package testtask.shift.shopapi.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import testtask.shift.shopapi.migration.SchemaMigrator;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SchemaMigrator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductModifiedAtPostgresTest {
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @BeforeEach
+    void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE laptop");
+    }
+
+    @Test
+    void databaseClockStampsInsertsAndUpdates() {
+        Instant before = databaseTime();
+        Laptop laptop = laptopRepository.save(new Laptop("LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14));
+        Instant inserted = modifiedAt(laptop.getId());
+        assertThat(inserted).isBetween(before, databaseTime());
+
+        laptop.setPrice(new BigDecimal("175.00"));
+        laptop.setModifiedAt(Instant.EPOCH);
+        laptopRepository.save(laptop);
+
+        assertThat(modifiedAt(laptop.getId())).isAfter(inserted);
+    }
+
+    @Test
+    void ignoresTimestampsWrittenByClients() {
+        jdbcTemplate.update("INSERT INTO laptop (id, series_number, producer, price, number_of_products_in_stock, size, modified_at) "
+                + "VALUES (1, 'LN-1', 'Lenovo', 150.00, 3, 0, '2000-01-01T00:00:00Z')");
+
+        assertThat(modifiedAt(1L)).isAfter(Instant.parse("2020-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void migrationKeepsExistingTriggers() {
+        String triggers = "SELECT oid FROM pg_trigger WHERE tgname LIKE '%_touch_modified_at' ORDER BY tgname";
+        List<Long> before = jdbcTemplate.queryForList(triggers, Long.class);
+
+        jdbcTemplate.update("DELETE FROM schema_migration WHERE version = 2");
+        schemaMigrator.migrate();
+
+        assertThat(before).hasSize(4);
+        assertThat(jdbcTemplate.queryForList(triggers, Long.class)).isEqualTo(before);
+    }
+
+    private Instant modifiedAt(long id) {
+        return jdbcTemplate.queryForObject("SELECT modified_at FROM laptop WHERE id = ?", Timestamp.class, id).toInstant();
+    }
+
+    private Instant databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT clock_timestamp()", Timestamp.class).toInstant();
+    }
+}
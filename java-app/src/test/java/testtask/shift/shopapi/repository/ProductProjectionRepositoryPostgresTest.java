@@ -0,0 +1,104 @@
+package testtask.shift.shopapi.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductProjectionRepository.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductProjectionRepositoryPostgresTest {
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("shop.catalog.scan-fetch-size", () -> "2");
+        registry.add("shop.catalog.projection.max-rows", () -> "3");
+    }
+
+    @Autowired
+    private ProductProjectionRepository productProjectionRepository;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE laptop");
+    }
+
+    @Test
+    void readsRequestedPropertiesInIdOrder() throws Exception {
+        laptopRepository.saveAll(List.of(
+                new Laptop("LN-1", "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14),
+                new Laptop("LN-2", "Asus", new BigDecimal("90.00"), 1L, LaptopSize.Inch13),
+                new Laptop("LN-3", "Acer", null, 0L, LaptopSize.Inch17)));
+
+        JsonNode rows = objectMapper.readTree(objectMapper.writeValueAsString(
+                productProjectionRepository.findAll(ProductCategory.LAPTOPS, List.of("seriesNumber", " size", "price"))));
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).fieldNames()).toIterable().containsExactly("seriesNumber", "size", "price");
+        assertThat(rows.get(0).get("size").asText()).isEqualTo("14 inches");
+        assertThat(rows.get(1).get("price").decimalValue()).isEqualByComparingTo("90.00");
+        assertThat(rows.get(2).get("seriesNumber").asText()).isEqualTo("LN-3");
+        assertThat(rows.get(2).get("price").isNull()).isTrue();
+    }
+
+    @Test
+    void rejectsProjectionsLargerThanMaxRows() {
+        for (int i = 0; i < 4; i++) {
+            laptopRepository.save(new Laptop("LN-" + i, "Lenovo", new BigDecimal("150.00"), 3L, LaptopSize.Inch14));
+        }
+
+        assertThatThrownBy(() -> productProjectionRepository.findAll(ProductCategory.LAPTOPS, List.of("id")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("More than 3 laptops to project");
+    }
+
+    @Test
+    void rejectsPropertiesHiddenFromJson() {
+        assertThatThrownBy(() -> productProjectionRepository.findAll(ProductCategory.LAPTOPS, List.of("id", "modifiedAt")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unknown fields for laptops: modifiedAt. Allowed: ")
+                .hasMessageNotContaining("modifiedAt,")
+                .hasMessageEndingWith("id, numberOfProductsInStock, price, producer, seriesNumber, size");
+    }
+}
@@ -0,0 +1,140 @@
+package testtask.shift.shopapi.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import testtask.shift.shopapi.migration.SchemaMigrator;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductUpsertRepository.class, SchemaMigrator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ProductUpsertRepositoryPostgresTest {
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ProductUpsertRepository productUpsertRepository;
+
+    @Autowired
+    private LaptopRepository laptopRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @BeforeEach
+    void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE laptop");
+    }
+
+    @Test
+    void insertsNewRowsAndUpdatesOnlyChangedOnes() {
+        ProductUpsertRepository.Outcome first = productUpsertRepository.upsert(ProductCategory.LAPTOPS,
+                List.of(laptop("S1", "100.00"), laptop("S2", "200.00")));
+        assertThat(first.inserted()).isEqualTo(2);
+        assertThat(first.updated()).isZero();
+        Map<String, Long> ids = first.changed().stream()
+                .collect(Collectors.toMap(Product::getSeriesNumber, Product::getId));
+
+        ProductUpsertRepository.Outcome second = productUpsertRepository.upsert(ProductCategory.LAPTOPS,
+                List.of(laptop("S1", "100.00"), laptop("S2", "250.00"), laptop("S3", "300.00")));
+
+        assertThat(second.inserted()).isEqualTo(1);
+        assertThat(second.updated()).isEqualTo(1);
+        assertThat(second.unchanged()).isEqualTo(1);
+        assertThat(second.changed()).extracting(Product::getSeriesNumber).containsExactlyInAnyOrder("S2", "S3");
+        assertThat(second.changed()).filteredOn(product -> product.getSeriesNumber().equals("S2"))
+                .extracting(Product::getId).containsExactly(ids.get("S2"));
+
+        Map<String, BigDecimal> prices = StreamSupport.stream(laptopRepository.findAll().spliterator(), false)
+                .collect(Collectors.toMap(Product::getSeriesNumber, Product::getPrice));
+        assertThat(prices).containsOnly(
+                Map.entry("S1", new BigDecimal("100.00")),
+                Map.entry("S2", new BigDecimal("250.00")),
+                Map.entry("S3", new BigDecimal("300.00")));
+    }
+
+    @Test
+    void rejectsDuplicateSeriesNumberOnPlainSave() {
+        laptopRepository.save(laptop("S1", "100.00"));
+
+        assertThatThrownBy(() -> laptopRepository.save(laptop("S1", "120.00")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void migrationRefusesDuplicatesAndListsTheirIds() {
+        jdbcTemplate.execute("DROP INDEX laptop_series_number_key");
+        jdbcTemplate.update("DELETE FROM schema_migration WHERE version = 1");
+        Laptop older = laptopRepository.save(laptop("S1", "100.00"));
+        Laptop newer = laptopRepository.save(laptop("S1", "120.00"));
+        laptopRepository.save(laptop("S2", "200.00"));
+
+        assertThatThrownBy(() -> schemaMigrator.migrate())
+                .hasMessageContaining("Duplicate series numbers in laptop: S1 (id " + older.getId() + ", " + newer.getId() + ")");
+        assertThat(laptopRepository.count()).isEqualTo(3);
+
+        laptopRepository.deleteById(older.getId());
+        schemaMigrator.migrate();
+
+        assertThatThrownBy(() -> laptopRepository.save(laptop("S2", "210.00")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void migrationRunsOnlyOnce() {
+        jdbcTemplate.execute("DROP INDEX laptop_series_number_key");
+
+        schemaMigrator.migrate();
+        assertThat(laptopIndexes()).isEmpty();
+
+        jdbcTemplate.update("DELETE FROM schema_migration WHERE version = 1");
+        schemaMigrator.migrate();
+        assertThat(laptopIndexes()).containsExactly("laptop_series_number_key");
+    }
+
+    private List<String> laptopIndexes() {
+        return jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'laptop' AND indexname LIKE '%series_number%'", String.class);
+    }
+
+    private static Laptop laptop(String seriesNumber, String price) {
+        return new Laptop(seriesNumber, "Lenovo", new BigDecimal(price), 1L, LaptopSize.Inch15);
+    }
+}
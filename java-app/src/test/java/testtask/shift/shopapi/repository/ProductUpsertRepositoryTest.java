@@ -0,0 +1,75 @@
+package testtask.shift.shopapi.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductUpsertRepositoryTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ProductUpsertRepository repository = new ProductUpsertRepository(jdbcTemplate, "hibernate_sequence", 2);
+
+    @Test
+    void upsertsInChunksAndCountsReturnedRows() throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), ArgumentMatchers.<Object>any()))
+                .thenAnswer(invocation -> {
+                    Object firstSeriesNumber = invocation.getArgument(2);
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    List<Object> rows = new ArrayList<>();
+                    if ("S1".equals(firstSeriesNumber)) {
+                        rows.add(mapper.mapRow(row(10L, "S1", true), 0));
+                    } else {
+                        rows.add(mapper.mapRow(row(11L, "S3", false), 0));
+                    }
+                    return rows;
+                });
+
+        ProductUpsertRepository.Outcome outcome = repository.upsert(ProductCategory.LAPTOPS, List.of(
+                laptop("S1"), laptop("S2"), laptop("S3")));
+
+        assertThat(outcome.inserted()).isEqualTo(1);
+        assertThat(outcome.updated()).isEqualTo(1);
+        assertThat(outcome.unchanged()).isEqualTo(1);
+        assertThat(outcome.changed()).extracting(product -> product.getId()).containsExactly(10L, 11L);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).query(sql.capture(), any(RowMapper.class), ArgumentMatchers.<Object>any());
+        assertThat(sql.getAllValues().get(0))
+                .startsWith("INSERT INTO laptop AS t (id, series_number, producer, price, number_of_products_in_stock, size) VALUES "
+                        + "(nextval('hibernate_sequence'), ?, ?, ?, ?, ?), (nextval('hibernate_sequence'), ?, ?, ?, ?, ?)")
+                .contains("ON CONFLICT (series_number) DO UPDATE SET")
+                .contains("size = EXCLUDED.size WHERE")
+                .contains("WHERE (t.producer, t.price, t.number_of_products_in_stock, t.size) IS DISTINCT FROM "
+                        + "(EXCLUDED.producer, EXCLUDED.price, EXCLUDED.number_of_products_in_stock, EXCLUDED.size)")
+                .endsWith("RETURNING t.id, t.series_number, (t.xmax = 0) AS inserted");
+    }
+
+    private ResultSet row(long id, String seriesNumber, boolean inserted) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(id);
+        when(resultSet.getString("series_number")).thenReturn(seriesNumber);
+        when(resultSet.getBoolean("inserted")).thenReturn(inserted);
+        return resultSet;
+    }
+
+    private Laptop laptop(String seriesNumber) {
+        return new Laptop(seriesNumber, "Maker", BigDecimal.TEN, 1L, LaptopSize.Inch15);
+    }
+}
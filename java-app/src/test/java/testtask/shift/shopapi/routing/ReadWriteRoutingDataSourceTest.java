@@ -0,0 +1,100 @@
+package testtask.shift.shopapi.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Statement primaryStatement = mock(Statement.class);
+    private final Statement replicaStatement = mock(Statement.class);
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenAnswer(invocation -> connection(primaryStatement));
+        when(replica.getConnection()).thenAnswer(invocation -> connection(replicaStatement));
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() throws SQLException {
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        verify(replicaStatement).execute("SELECT 1");
+        verify(primaryStatement, never()).execute(anyString());
+        assertThat(routingDataSource.getRoutedConnections(DataSourceRoute.REPLICA)).isEqualTo(1);
+    }
+
+    @Test
+    void routesWritesAndNonTransactionalCallsToPrimary() throws SQLException {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("UPDATE laptop SET price = 1"));
+        jdbcTemplate.execute("SELECT pg_notify('a', 'b')");
+
+        verify(primaryStatement).execute("UPDATE laptop SET price = 1");
+        verify(primaryStatement).execute("SELECT pg_notify('a', 'b')");
+        verify(replicaStatement, never()).execute(anyString());
+    }
+
+    @Test
+    void forcedPrimaryOverridesReadOnly() throws SQLException {
+        ReadWriteRoutingDataSource.onPrimary(() -> readOnly.execute(status -> {
+            jdbcTemplate.execute("SELECT 1");
+            return null;
+        }));
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 2"));
+
+        verify(primaryStatement).execute("SELECT 1");
+        verify(replicaStatement).execute("SELECT 2");
+    }
+
+    @Test
+    void exposesRoutedConnectionCounters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        routingDataSource.bindTo(meterRegistry);
+
+        readOnly.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        readWrite.executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+
+        assertThat(meterRegistry.get("shop.datasource.connections.routed").tag("route", "replica").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("shop.datasource.connections.routed").tag("route", "primary").functionCounter().count())
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    private static Connection connection(Statement statement) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        when(connection.createStatement()).thenReturn(statement);
+        return connection;
+    }
+}
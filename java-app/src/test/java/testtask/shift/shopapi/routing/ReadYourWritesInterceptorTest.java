@@ -0,0 +1,69 @@
+package testtask.shift.shopapi.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.servlet.http.Cookie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesInterceptorTest {
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(5_000);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadWriteRoutingDataSource.setPrimaryForced(false);
+    }
+
+    @Test
+    void writeMarksClientAndStaysOnPrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/laptops/add");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+
+        Cookie cookie = response.getCookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+        assertThat(readOnlyRoute()).isEqualTo(DataSourceRoute.PRIMARY);
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertThat(readOnlyRoute()).isEqualTo(DataSourceRoute.REPLICA);
+    }
+
+    @Test
+    void readsWithinWindowAfterWriteGoToPrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/laptops/1");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE,
+                Long.toString(System.currentTimeMillis() - 1_000)));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        assertThat(readOnlyRoute()).isEqualTo(DataSourceRoute.PRIMARY);
+    }
+
+    @Test
+    void readsAfterWindowOrWithoutMarkerGoToReplica() {
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/laptops/1");
+        stale.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE,
+                Long.toString(System.currentTimeMillis() - 6_000)));
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/laptops/1");
+        malformed.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, "yesterday"));
+
+        interceptor.preHandle(stale, new MockHttpServletResponse(), new Object());
+        assertThat(readOnlyRoute()).isEqualTo(DataSourceRoute.REPLICA);
+        interceptor.preHandle(malformed, new MockHttpServletResponse(), new Object());
+        assertThat(readOnlyRoute()).isEqualTo(DataSourceRoute.REPLICA);
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/stats"), new MockHttpServletResponse(), new Object());
+        assertThat(readOnlyRoute()).isEqualTo(DataSourceRoute.REPLICA);
+    }
+
+    private static DataSourceRoute readOnlyRoute() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        return ReadWriteRoutingDataSource.currentRoute();
+    }
+}
@@ -0,0 +1,113 @@
+package testtask.shift.shopapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncStatsServiceTest {
+    private final AsyncStatsService asyncStatsService = new AsyncStatsService(2, 10, 1_000, 5_000);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        asyncStatsService.shutdown();
+    }
+
+    @Test
+    void runsComputationOffTheCallingThread() throws Exception {
+        StatsResult<String> result = asyncStatsService.compute("stats", null, () -> Thread.currentThread().getName())
+                .get(1, TimeUnit.SECONDS);
+
+        assertThat(result.value()).startsWith("stats-");
+        assertThat(result.stale()).isFalse();
+    }
+
+    @Test
+    void servesLastGoodResultWhenComputationTimesOut() throws Exception {
+        asyncStatsService.compute("stats", null, () -> "fresh").get(1, TimeUnit.SECONDS);
+
+        StatsResult<String> result = asyncStatsService.compute("stats", 50L, this::blocked).get(1, TimeUnit.SECONDS);
+
+        assertThat(result.value()).isEqualTo("fresh");
+        assertThat(result.stale()).isTrue();
+    }
+
+    @Test
+    void failsWhenNoPreviousResultIsAvailable() {
+        assertThatThrownBy(() -> asyncStatsService.compute("insights", 50L, this::blocked).get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StatsUnavailableException.class);
+    }
+
+    @Test
+    void sharesInFlightComputationBetweenCallers() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<String> computation = () -> {
+            runs.incrementAndGet();
+            return blocked();
+        };
+
+        CompletableFuture<StatsResult<String>> impatient = asyncStatsService.compute("stats", 50L, computation);
+        CompletableFuture<StatsResult<String>> patient = asyncStatsService.compute("stats", 5_000L, computation);
+        assertThatThrownBy(() -> impatient.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(StatsUnavailableException.class);
+        CompletableFuture<StatsResult<String>> late = asyncStatsService.compute("stats", 5_000L, computation);
+        release.countDown();
+
+        assertThat(patient.get(1, TimeUnit.SECONDS).value()).isEqualTo("late");
+        assertThat(late.get(1, TimeUnit.SECONDS).value()).isEqualTo("late");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void startsNewComputationOnceThePreviousOneCompletes() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+
+        asyncStatsService.compute("stats", null, runs::incrementAndGet).get(1, TimeUnit.SECONDS);
+        StatsResult<Integer> second = asyncStatsService.compute("stats", null, runs::incrementAndGet).get(1, TimeUnit.SECONDS);
+
+        assertThat(second.value()).isEqualTo(2);
+        assertThat(second.stale()).isFalse();
+    }
+
+    @Test
+    void runsPrimaryForcedCallersSeparatelyOnPrimary() throws Exception {
+        CompletableFuture<StatsResult<String>> replica = asyncStatsService.compute("stats", 5_000L, this::blocked);
+        CompletableFuture<StatsResult<Boolean>> primary;
+        ReadWriteRoutingDataSource.setPrimaryForced(true);
+        try {
+            primary = asyncStatsService.compute("stats", 5_000L, ReadWriteRoutingDataSource::isPrimaryForced);
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryForced(false);
+        }
+
+        assertThat(primary.get(1, TimeUnit.SECONDS).value()).isTrue();
+        assertThat(replica).isNotDone();
+    }
+
+    @Test
+    void rejectsNonPositiveTimeout() {
+        assertThatThrownBy(() -> asyncStatsService.compute("stats", 0L, () -> "fresh"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String blocked() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "late";
+    }
+}
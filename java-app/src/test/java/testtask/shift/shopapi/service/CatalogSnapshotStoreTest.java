@@ -0,0 +1,166 @@
+package testtask.shift.shopapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.hdd.HardDrive;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.model.monitor.Monitor;
+import testtask.shift.shopapi.model.pc.FormFactor;
+import testtask.shift.shopapi.model.pc.PersonalComputer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotStoreTest {
+    private static final Instant TAKEN = Instant.parse("2024-05-01T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final CatalogScanner catalogScanner = mock(CatalogScanner.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void readsBackEveryCategoryFromTheMappedFile() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter writer = CatalogSnapshotWriter.create(file, TAKEN)) {
+            writer.append(ProductCategory.LAPTOPS, new Laptop(1L, "LN-1", "Lenovo", new BigDecimal("999.99"), 3L, LaptopSize.Inch15));
+            writer.append(ProductCategory.LAPTOPS, new Laptop(2L, "LN-2", "Lenovo", null, null, null));
+            writer.append(ProductCategory.MONITORS, new Monitor(3L, "MN-1", "Дэлл", new BigDecimal("150"), 0L, 27.5));
+            writer.append(ProductCategory.PERSONAL_COMPUTERS, new PersonalComputer(4L, null, null, new BigDecimal("-1.5E+3"), 7L, FormFactor.NETTOP));
+            writer.append(ProductCategory.HARD_DRIVES, new HardDrive(5L, "HD-1", "Seagate", new BigDecimal("80.00"), 12L, 2048));
+            writer.commit();
+        }
+
+        CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(file);
+
+        assertThat(snapshot.version()).isEqualTo(TAKEN);
+        assertThat(snapshot.rowCount(ProductCategory.LAPTOPS)).isEqualTo(2);
+        assertThat(snapshot.rowCount(ProductCategory.HARD_DRIVES)).isEqualTo(1);
+        assertThat(directory.toFile().list()).containsExactly("catalog.snapshot");
+
+        Laptop laptop = (Laptop) snapshot.product(ProductCategory.LAPTOPS, 0);
+        assertThat(laptop.getSeriesNumber()).isEqualTo("LN-1");
+        assertThat(laptop.getPrice()).isEqualTo(new BigDecimal("999.99"));
+        assertThat(laptop.getSize()).isEqualTo(LaptopSize.Inch15);
+        Laptop empty = (Laptop) snapshot.product(ProductCategory.LAPTOPS, 1);
+        assertThat(empty.getProducer()).isEqualTo("Lenovo");
+        assertThat(empty.getPrice()).isNull();
+        assertThat(empty.getNumberOfProductsInStock()).isNull();
+        assertThat(empty.getSize()).isNull();
+        Monitor monitor = (Monitor) snapshot.product(ProductCategory.MONITORS, 0);
+        assertThat(monitor.getProducer()).isEqualTo("Дэлл");
+        assertThat(monitor.getDiagonal()).isEqualTo(27.5);
+        PersonalComputer pc = (PersonalComputer) snapshot.product(ProductCategory.PERSONAL_COMPUTERS, 0);
+        assertThat(pc.getSeriesNumber()).isNull();
+        assertThat(pc.getPrice()).isEqualTo(new BigDecimal("-1.5E+3"));
+        assertThat(pc.getFormFactor()).isEqualTo(FormFactor.NETTOP);
+        HardDrive hardDrive = (HardDrive) snapshot.product(ProductCategory.HARD_DRIVES, 0);
+        assertThat(hardDrive.getId()).isEqualTo(5L);
+        assertThat(hardDrive.getCapacity()).isEqualTo(2048);
+    }
+
+    @Test
+    void rejectsCorruptedSnapshots() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter writer = CatalogSnapshotWriter.create(file, TAKEN)) {
+            writer.append(ProductCategory.LAPTOPS, laptop(1L, "999.99"));
+            writer.commit();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), CatalogSnapshotFile.HEADER_BYTES + CatalogSnapshotFile.PRICE_UNSCALED);
+        }
+
+        assertThatThrownBy(() -> CatalogSnapshotFile.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void catchesUpOnlyRowsChangedSinceTheSnapshot() {
+        when(catalogScanner.databaseTime()).thenReturn(TAKEN);
+        givenTable(List.of(laptop(1L, "100"), laptop(2L, "200")));
+        newStore().restore((category, product) -> {
+        });
+        clearInvocations(catalogScanner);
+
+        when(catalogScanner.databaseTime()).thenReturn(TAKEN.plusSeconds(600));
+        when(catalogScanner.count(ProductCategory.LAPTOPS)).thenReturn(3L);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(2);
+            consumer.accept(laptop(2L, "250"));
+            consumer.accept(laptop(3L, "300"));
+            return 2L;
+        }).when(catalogScanner).scanModifiedSince(eq(ProductCategory.LAPTOPS), eq(TAKEN.minusSeconds(60)), any());
+        givenTable(List.of());
+
+        List<Product> restored = new ArrayList<>();
+        long rows = newStore().restore((category, product) -> restored.add(product));
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(restored).extracting(Product::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(restored).filteredOn(product -> product.getId() == 2L)
+                .extracting(Product::getPrice).containsExactly(new BigDecimal("250"));
+        verify(catalogScanner, never()).scan(eq(ProductCategory.MONITORS), any());
+        assertThat(meterRegistry.counter("shop.catalog.snapshot.rows.caught.up").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("shop.catalog.snapshot.restore", "source", "snapshot").count()).isEqualTo(1);
+    }
+
+    @Test
+    void scansTheTableWhenRowCountsDoNotAddUp() {
+        when(catalogScanner.databaseTime()).thenReturn(TAKEN);
+        givenTable(List.of(laptop(1L, "100"), laptop(2L, "200")));
+        newStore().restore((category, product) -> {
+        });
+
+        when(catalogScanner.databaseTime()).thenReturn(TAKEN.plusSeconds(600));
+        when(catalogScanner.count(ProductCategory.LAPTOPS)).thenReturn(1L);
+        givenTable(List.of(laptop(2L, "200")));
+
+        List<Product> restored = new ArrayList<>();
+        newStore().restore((category, product) -> restored.add(product));
+
+        assertThat(restored).extracting(Product::getId).containsExactly(2L);
+        assertThat(meterRegistry.counter("shop.catalog.snapshot.fallbacks").count()).isEqualTo(1);
+    }
+
+    private void givenTable(List<Laptop> laptops) {
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(1);
+            laptops.forEach(consumer);
+            return (long) laptops.size();
+        }).when(catalogScanner).scan(eq(ProductCategory.LAPTOPS), any());
+    }
+
+    private CatalogSnapshotStore newStore() {
+        return new CatalogSnapshotStore(catalogScanner, meterRegistry,
+                directory.resolve("catalog.snapshot").toString(), 60_000, 86_400_000);
+    }
+
+    private static Laptop laptop(Long id, String price) {
+        return new Laptop(id, "LN-" + id, "Lenovo", new BigDecimal(price), 3L, LaptopSize.Inch15);
+    }
+}
@@ -0,0 +1,138 @@
+package testtask.shift.shopapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.ingest.IngestStatus;
+import testtask.shift.shopapi.model.ingest.IngestStatusResponse;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.PersonalComputerRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestServiceImplTest {
+    private final LaptopRepository laptopRepository = mock(LaptopRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IngestServiceImpl ingestService;
+
+    @AfterEach
+    void stopWriter() {
+        if (ingestService != null && ingestService.isRunning()) {
+            ingestService.stop();
+        }
+    }
+
+    @Test
+    void writesQueuedProductsInBackground() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        when(laptopRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Laptop> laptops = invocation.getArgument(0);
+            laptops.forEach(laptop -> laptop.setId(ids.incrementAndGet()));
+            return laptops;
+        });
+        ingestService = newService(10);
+        ingestService.start();
+
+        IngestStatusResponse accepted = ingestService.submit(ProductCategory.LAPTOPS, List.of(laptop("S1"), laptop("S2")));
+        assertThat(accepted.getStatus()).isEqualTo(IngestStatus.QUEUED);
+
+        IngestStatusResponse status = awaitCompletion(accepted.getTrackingId());
+        assertThat(status.getStatus()).isEqualTo(IngestStatus.COMPLETED);
+        assertThat(status.getProductIds()).containsExactly(1L, 2L);
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(ProductSavedEvent.class));
+        ingestService.stop();
+        assertThat(meterRegistry.get("shop.ingest.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsSubmissionsAfterShutdown() {
+        ingestService = newService(1);
+        ingestService.start();
+        ingestService.stop();
+
+        assertThatThrownBy(() -> ingestService.submit(ProductCategory.LAPTOPS, List.of(laptop("S1"))))
+                .isInstanceOf(IngestQueueFullException.class);
+    }
+
+    @Test
+    void leavesNoJobQueuedWhenSubmitRacesShutdown() throws Exception {
+        when(laptopRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+        for (int attempt = 0; attempt < 20; attempt++) {
+            ingestService = newService(1000, Integer.MAX_VALUE);
+            ingestService.start();
+            List<String> accepted = new CopyOnWriteArrayList<>();
+            Thread submitter = new Thread(() -> {
+                while (true) {
+                    try {
+                        accepted.add(ingestService.submit(ProductCategory.LAPTOPS, List.of(laptop("S1"))).getTrackingId());
+                    } catch (IngestQueueFullException e) {
+                        return;
+                    }
+                }
+            });
+            submitter.start();
+            Thread.sleep(5);
+            ingestService.stop();
+            submitter.join();
+
+            assertThat(accepted).allSatisfy(trackingId ->
+                    assertThat(ingestService.getStatus(trackingId).getStatus()).isNotEqualTo(IngestStatus.QUEUED));
+        }
+    }
+
+    @Test
+    void rejectsInvalidProducts() {
+        ingestService = newService(10);
+
+        assertThatThrownBy(() -> ingestService.submit(ProductCategory.LAPTOPS,
+                List.of(new Laptop("S1", " ", BigDecimal.ONE, 1L, LaptopSize.Inch13))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("producer");
+    }
+
+    private IngestStatusResponse awaitCompletion(String trackingId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            IngestStatusResponse status = ingestService.getStatus(trackingId);
+            if (status.getStatus() != IngestStatus.QUEUED) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        return ingestService.getStatus(trackingId);
+    }
+
+    private IngestServiceImpl newService(int queueCapacity) {
+        return newService(queueCapacity, 100);
+    }
+
+    private IngestServiceImpl newService(int queueCapacity, int statusRetention) {
+        return new IngestServiceImpl(laptopRepository, mock(MonitorRepository.class), mock(PersonalComputerRepository.class),
+                mock(HardDriveRepository.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                eventPublisher, meterRegistry, queueCapacity, 500, 1000, statusRetention, 1000);
+    }
+
+    private Laptop laptop(String seriesNumber) {
+        return new Laptop(seriesNumber, "Maker", BigDecimal.TEN, 1L, LaptopSize.Inch15);
+    }
+}
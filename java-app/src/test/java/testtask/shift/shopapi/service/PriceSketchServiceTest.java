@@ -0,0 +1,77 @@
+package testtask.shift.shopapi.service;
+
+import org.junit.jupiter.api.Test;
+import testtask.shift.shopapi.model.Product;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class PriceSketchServiceTest {
+    private final CatalogScanner catalogScanner = mock(CatalogScanner.class);
+
+    @Test
+    void rebuildDropsPricesReplacedByEdits() {
+        PriceSketchService service = new PriceSketchService(catalogScanner, 200, 64, 10);
+        service.accept(ProductCategory.LAPTOPS, laptop(1L, "Lenovo", "100"));
+        service.accept(ProductCategory.LAPTOPS, laptop(2L, "Lenovo", "200"));
+        service.accept(ProductCategory.LAPTOPS, laptop(1L, "Lenovo", "150"));
+        assertThat(service.distribution(ProductCategory.LAPTOPS).getPricedProducts()).isEqualTo(3);
+
+        givenTable(List.of(laptop(1L, "Lenovo", "150"), laptop(2L, "Lenovo", "200")));
+        service.rebuild();
+
+        assertThat(service.distribution(ProductCategory.LAPTOPS).getPricedProducts()).isEqualTo(2);
+        assertThat(service.distribution(ProductCategory.LAPTOPS, "Lenovo").getPricedProducts()).isEqualTo(2);
+        assertThat(service.distribution(ProductCategory.MONITORS).getPricedProducts()).isZero();
+    }
+
+    @Test
+    void keepsSavesThatArriveDuringRebuild() {
+        PriceSketchService service = new PriceSketchService(catalogScanner, 200, 64, 10);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(1);
+            consumer.accept(laptop(1L, "Lenovo", "100"));
+            service.accept(ProductCategory.LAPTOPS, laptop(2L, "Lenovo", "200"));
+            return 1L;
+        }).when(catalogScanner).scan(eq(ProductCategory.LAPTOPS), any());
+
+        service.rebuild();
+
+        assertThat(service.distribution(ProductCategory.LAPTOPS).getPricedProducts()).isEqualTo(2);
+    }
+
+    @Test
+    void stopsTrackingProducersOverTheLimit() {
+        PriceSketchService service = new PriceSketchService(catalogScanner, 200, 64, 2);
+        service.accept(ProductCategory.LAPTOPS, laptop(1L, "Lenovo", "100"));
+        service.accept(ProductCategory.LAPTOPS, laptop(2L, "Asus", "200"));
+        service.accept(ProductCategory.LAPTOPS, laptop(3L, "Acer", "300"));
+        service.accept(ProductCategory.LAPTOPS, laptop(4L, "Lenovo", "400"));
+
+        assertThat(service.distribution(ProductCategory.LAPTOPS).getPricedProducts()).isEqualTo(4);
+        assertThat(service.distribution(ProductCategory.LAPTOPS, "Lenovo").getPricedProducts()).isEqualTo(2);
+        assertThat(service.distribution(ProductCategory.LAPTOPS, "Acer")).isNull();
+    }
+
+    private void givenTable(List<Laptop> laptops) {
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(1);
+            laptops.forEach(consumer);
+            return (long) laptops.size();
+        }).when(catalogScanner).scan(eq(ProductCategory.LAPTOPS), any());
+    }
+
+    private static Laptop laptop(Long id, String producer, String price) {
+        return new Laptop(id, "LN-" + id, producer, new BigDecimal(price), 3L, LaptopSize.Inch15);
+    }
+}
@@ -0,0 +1,166 @@
+package testtask.shift.shopapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.CategoryProducerBreakdown;
+import testtask.shift.shopapi.model.analytics.ProducerBreakdownResponse;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.PersonalComputerRepository;
+import testtask.shift.shopapi.repository.ProducerAggregate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProducerBreakdownServiceTest {
+    @Mock
+    private LaptopRepository laptopRepository;
+
+    @Mock
+    private MonitorRepository monitorRepository;
+
+    @Mock
+    private PersonalComputerRepository personalComputerRepository;
+
+    @Mock
+    private HardDriveRepository hardDriveRepository;
+
+    private ProducerBreakdownService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProducerBreakdownService(laptopRepository, monitorRepository, personalComputerRepository,
+                hardDriveRepository, 100);
+        lenient().when(monitorRepository.aggregateByProducer(anyInt())).thenReturn(List.of());
+        lenient().when(personalComputerRepository.aggregateByProducer(anyInt())).thenReturn(List.of());
+        lenient().when(hardDriveRepository.aggregateByProducer(anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void keepsTopProducersAndReportsTheOtherBucket() {
+        when(laptopRepository.aggregateByProducer(2)).thenReturn(List.of(
+                new Aggregate("Big", false, 1L, 4L, 2L, 10L, new BigDecimal("300.00"), 2L, new BigDecimal("1500.00")),
+                new Aggregate("Medium", false, 1L, 4L, 3L, 5L, new BigDecimal("60.00"), 3L, new BigDecimal("100.00")),
+                new Aggregate("Small", true, 2L, 4L, 2L, 1L, new BigDecimal("10.00"), 1L, new BigDecimal("10.00"))
+        ));
+
+        CategoryProducerBreakdown laptops = service.breakdown(2).getCategories().get(0);
+
+        assertThat(laptops.getCategory()).isEqualTo("laptops");
+        assertThat(laptops.getTotalProducers()).isEqualTo(4);
+        assertThat(laptops.getTopProducers()).extracting("producer").containsExactly("Big", "Medium");
+        assertThat(laptops.getTopProducers().get(0).getAveragePrice()).isEqualByComparingTo("150.00");
+        assertThat(laptops.getOtherProducers()).isEqualTo(2);
+        assertThat(laptops.getOther().getProducer()).isEqualTo("other");
+        assertThat(laptops.getOther().getCount()).isEqualTo(2);
+        assertThat(laptops.getOther().getStockUnits()).isEqualTo(1);
+        assertThat(laptops.getOther().getAveragePrice()).isEqualByComparingTo("10.00");
+        assertThat(laptops.getOther().getInventoryValue()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void treatsMissingSumsAsZero() {
+        when(laptopRepository.aggregateByProducer(5)).thenReturn(List.of(
+                new Aggregate(null, false, 1L, 1L, 1L, null, null, 0L, null)
+        ));
+
+        CategoryProducerBreakdown laptops = service.breakdown(5).getCategories().get(0);
+
+        assertThat(laptops.getTopProducers()).hasSize(1);
+        assertThat(laptops.getTopProducers().get(0).getProducer()).isNull();
+        assertThat(laptops.getTopProducers().get(0).getAveragePrice()).isEqualByComparingTo("0");
+        assertThat(laptops.getTopProducers().get(0).getInventoryValue()).isEqualByComparingTo("0");
+        assertThat(laptops.getOther()).isNull();
+        assertThat(laptops.getOtherProducers()).isZero();
+    }
+
+    @Test
+    void servesFromCacheUntilCategoryIsWritten() {
+        when(laptopRepository.aggregateByProducer(anyInt())).thenReturn(List.of(
+                new Aggregate("Maker", false, 1L, 1L, 1L, 1L, BigDecimal.TEN, 1L, BigDecimal.TEN)
+        ));
+
+        service.breakdown(10);
+        service.breakdown(10);
+        service.breakdown(5);
+        verify(laptopRepository, times(1)).aggregateByProducer(10);
+        verify(laptopRepository, times(1)).aggregateByProducer(5);
+
+        service.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, new Laptop()));
+        ProducerBreakdownResponse response = service.breakdown(10);
+
+        verify(laptopRepository, times(2)).aggregateByProducer(10);
+        verify(monitorRepository, times(1)).aggregateByProducer(10);
+        assertThat(response.getCategories().get(0).getOther()).isNull();
+    }
+
+    @Test
+    void rejectsLimitOutOfRange() {
+        assertThatThrownBy(() -> service.breakdown(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.breakdown(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private record Aggregate(String producer, Boolean other, Long producers, Long totalProducers, Long products,
+                             Long stockUnits, BigDecimal priceTotal, Long pricedProducts,
+                             BigDecimal inventoryValue) implements ProducerAggregate {
+        @Override
+        public String getProducer() {
+            return producer;
+        }
+
+        @Override
+        public Boolean getOther() {
+            return other;
+        }
+
+        @Override
+        public Long getProducers() {
+            return producers;
+        }
+
+        @Override
+        public Long getTotalProducers() {
+            return totalProducers;
+        }
+
+        @Override
+        public Long getProducts() {
+            return products;
+        }
+
+        @Override
+        public Long getStockUnits() {
+            return stockUnits;
+        }
+
+        @Override
+        public BigDecimal getPriceTotal() {
+            return priceTotal;
+        }
+
+        @Override
+        public Long getPricedProducts() {
+            return pricedProducts;
+        }
+
+        @Override
+        public BigDecimal getInventoryValue() {
+            return inventoryValue;
+        }
+    }
+}
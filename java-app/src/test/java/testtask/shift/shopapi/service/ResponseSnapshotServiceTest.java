@@ -0,0 +1,126 @@
+package testtask.shift.shopapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
+import testtask.shift.shopapi.model.analytics.StatsResponse;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+import testtask.shift.shopapi.web.ApiMediaTypes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseSnapshotServiceTest {
+    private final LaptopService laptopService = mock(LaptopService.class);
+    private final StatsService statsService = mock(StatsService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ResponseSnapshotService snapshotService;
+
+    @AfterEach
+    void tearDown() {
+        snapshotService.shutdown();
+    }
+
+    @Test
+    void buildsSnapshotsInEveryConfiguredFormat() throws Exception {
+        List<Laptop> laptops = laptops(200);
+        when(laptopService.getAllLaptops()).thenReturn(laptops);
+        snapshotService = newService(List.of(ApiMediaTypes.JSON, ApiMediaTypes.SMILE), Long.MAX_VALUE);
+
+        snapshotService.buildAll();
+        await(() -> snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.SMILE) != null);
+
+        ResponseSnapshotService.Snapshot json = snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.JSON);
+        assertThat(json.body()).isEqualTo(objectMapper.writeValueAsBytes(laptops));
+        assertThat(json.gzipped()).isNotNull().hasSizeLessThan(json.body().length);
+        assertThat(snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.CBOR)).isNull();
+        assertThat(meterRegistry.get("shop.snapshot.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    void dropsSnapshotOnWriteAndRebuildsOnceAfterBurst() {
+        when(laptopService.getAllLaptops()).thenReturn(laptops(10));
+        snapshotService = newService(List.of(ApiMediaTypes.JSON), Long.MAX_VALUE);
+        snapshotService.buildAll();
+        await(() -> snapshotService.get(ResponseSnapshotService.INSIGHTS, ApiMediaTypes.JSON) != null);
+
+        for (int i = 0; i < 100; i++) {
+            snapshotService.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, new Laptop()));
+        }
+        assertThat(snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.JSON)).isNull();
+        assertThat(snapshotService.get(ResponseSnapshotService.STATS, ApiMediaTypes.JSON)).isNull();
+
+        await(() -> snapshotService.get(ResponseSnapshotService.INSIGHTS, ApiMediaTypes.JSON) != null);
+        assertThat(snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.JSON)).isNotNull();
+        verify(laptopService, times(2)).getAllLaptops();
+        verify(statsService, times(2)).getStats();
+    }
+
+    @Test
+    void rebuildsFromPrimary() {
+        AtomicBoolean onPrimary = new AtomicBoolean();
+        when(laptopService.getAllLaptops()).thenAnswer(invocation -> {
+            onPrimary.set(ReadWriteRoutingDataSource.isPrimaryForced());
+            return laptops(1);
+        });
+        snapshotService = newService(List.of(ApiMediaTypes.JSON), Long.MAX_VALUE);
+
+        snapshotService.buildAll();
+        await(() -> snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.JSON) != null);
+
+        assertThat(onPrimary).isTrue();
+    }
+
+    @Test
+    void rejectsSnapshotsBeyondMemoryBudget() {
+        when(laptopService.getAllLaptops()).thenReturn(laptops(1_000));
+        snapshotService = newService(List.of(ApiMediaTypes.JSON), 4_096);
+
+        snapshotService.buildAll();
+        await(() -> meterRegistry.counter("shop.snapshot.rejected").count() > 0);
+
+        assertThat(snapshotService.get(ProductCategory.LAPTOPS.getPath(), ApiMediaTypes.JSON)).isNull();
+        assertThat(snapshotService.getStoredBytes()).isLessThanOrEqualTo(4_096);
+    }
+
+    private ResponseSnapshotService newService(List<String> formats, long maxBytes) {
+        when(statsService.getStats()).thenReturn(new StatsResponse(1, 1, 0, 0, 0, 1));
+        when(statsService.getInsights()).thenReturn(new StatsInsightsResponse(1, 1, BigDecimal.ONE, List.of()));
+        return new ResponseSnapshotService(laptopService, mock(MonitorService.class), mock(PersonalComputerService.class),
+                mock(HardDriveService.class), statsService, objectMapper, new MappingJackson2CborHttpMessageConverter(),
+                new MappingJackson2SmileHttpMessageConverter(), meterRegistry, formats, 50, maxBytes, 2_048);
+    }
+
+    private static List<Laptop> laptops(int count) {
+        List<Laptop> laptops = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            laptops.add(new Laptop((long) i, "LN-" + i, "Lenovo", new BigDecimal("999.99"), 3L, LaptopSize.Inch15));
+        }
+        return laptops;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
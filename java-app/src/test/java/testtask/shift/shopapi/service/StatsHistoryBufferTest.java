@@ -0,0 +1,56 @@
+package testtask.shift.shopapi.service;
+
+import org.junit.jupiter.api.Test;
+import testtask.shift.shopapi.model.analytics.HistoryResolution;
+import testtask.shift.shopapi.model.analytics.StatsHistoryPoint;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsHistoryBufferTest {
+
+    @Test
+    void overwritesOldestSlotsOnceFull() {
+        StatsHistoryBuffer buffer = newBuffer(HistoryResolution.MINUTE, 3);
+
+        for (int minute = 0; minute < 5; minute++) {
+            buffer.record(minute * 60L, minute, minute * 10L, minute * 100L);
+        }
+
+        List<StatsHistoryPoint> points = buffer.query(0, Long.MAX_VALUE);
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(points).extracting(StatsHistoryPoint::getTotalProducts).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void averagesSamplesWithinCoarserBucket() {
+        StatsHistoryBuffer buffer = newBuffer(HistoryResolution.HOUR, 4);
+
+        buffer.record(0, 10, 100, 1_000);
+        buffer.record(1_800, 20, 200, 3_000);
+        buffer.record(3_600, 5, 50, 500);
+
+        List<StatsHistoryPoint> points = buffer.query(0, 7_200);
+        assertThat(points).hasSize(2);
+        assertThat(points.get(0).getSamples()).isEqualTo(2);
+        assertThat(points.get(0).getTotalProducts()).isEqualTo(15);
+        assertThat(points.get(0).getTotalInventoryValue()).isEqualByComparingTo("20.00");
+        assertThat(points.get(1).getTotalStockUnits()).isEqualTo(50);
+    }
+
+    @Test
+    void restoresStateFromExistingStorage() {
+        ByteBuffer storage = ByteBuffer.allocate(StatsHistoryBuffer.bytesFor(8));
+        new StatsHistoryBuffer(HistoryResolution.MINUTE, storage, 8).record(120, 7, 70, 700);
+
+        StatsHistoryBuffer reopened = new StatsHistoryBuffer(HistoryResolution.MINUTE, storage, 8);
+
+        assertThat(reopened.query(0, 600)).extracting(StatsHistoryPoint::getTotalProducts).containsExactly(7L);
+    }
+
+    private StatsHistoryBuffer newBuffer(HistoryResolution resolution, int capacity) {
+        return new StatsHistoryBuffer(resolution, ByteBuffer.allocate(StatsHistoryBuffer.bytesFor(capacity)), capacity);
+    }
+}
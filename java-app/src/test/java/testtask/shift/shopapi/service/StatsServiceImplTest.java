@@ -4,8 +4,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.analytics.CardinalityResponse;
 import testtask.shift.shopapi.model.analytics.CategoryMetrics;
+import testtask.shift.shopapi.model.analytics.ProducerPriceDistribution;
 import testtask.shift.shopapi.model.analytics.StatsInsightsResponse;
 import testtask.shift.shopapi.model.analytics.StatsResponse;
 import testtask.shift.shopapi.model.hdd.HardDrive;
@@ -23,6 +27,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +44,12 @@ class StatsServiceImplTest {
     @Mock
     private HardDriveRepository hardDriveRepository;
 
+    @Spy
+    private PriceSketchService priceSketchService = new PriceSketchService(mock(CatalogScanner.class), 200, 64, 10_000);
+
+    @Spy
+    private CardinalityService cardinalityService = new CardinalityService(14);
+
     @InjectMocks
     private StatsServiceImpl statsService;
 
@@ -99,4 +110,40 @@ class StatsServiceImplTest {
         assertThat(monitors.getStockUnits()).isZero();
         assertThat(monitors.getInventoryValue()).isEqualByComparingTo("0");
     }
+
+    @Test
+    void reportsPricePercentilesFromSketches() {
+        for (int i = 1; i <= 100; i++) {
+            priceSketchService.accept(ProductCategory.LAPTOPS,
+                    new Laptop((long) i, "S" + i, i % 2 == 0 ? "Even" : "Odd", BigDecimal.valueOf(i), 1L, LaptopSize.Inch15));
+        }
+        when(laptopRepository.findAll()).thenReturn(List.of());
+        when(monitorRepository.findAll()).thenReturn(List.of());
+        when(personalComputerRepository.findAll()).thenReturn(List.of());
+        when(hardDriveRepository.findAll()).thenReturn(List.of());
+
+        CategoryMetrics laptops = statsService.getInsights().getCategories().get(0);
+
+        assertThat(laptops.getPriceDistribution().getPricedProducts()).isEqualTo(100);
+        assertThat(laptops.getPriceDistribution().getMedianPrice()).isEqualByComparingTo("50.00");
+        assertThat(laptops.getPriceDistribution().getP90Price()).isEqualByComparingTo("90.00");
+        assertThat(laptops.getPriceDistribution().getP99Price()).isEqualByComparingTo("99.00");
+        assertThat(statsService.getProducerPrices("Even")).singleElement()
+                .extracting(ProducerPriceDistribution::getCategory)
+                .isEqualTo("laptops");
+    }
+
+    @Test
+    void estimatesDistinctProducersAcrossCategories() {
+        cardinalityService.accept(ProductCategory.LAPTOPS, new Laptop(1L, "S1", "Acme", BigDecimal.ONE, 1L, LaptopSize.Inch13));
+        cardinalityService.accept(ProductCategory.LAPTOPS, new Laptop(2L, "S2", "Globex", BigDecimal.ONE, 1L, LaptopSize.Inch13));
+        cardinalityService.accept(ProductCategory.MONITORS, new Monitor(3L, "S3", "Acme", BigDecimal.ONE, 1L, 24));
+
+        CardinalityResponse cardinality = statsService.getCardinality();
+
+        assertThat(cardinality.getDistinctProducers()).isEqualTo(2);
+        assertThat(cardinality.getDistinctSeries()).isEqualTo(3);
+        assertThat(cardinality.getProducerCategoryPairs()).isEqualTo(3);
+        assertThat(cardinality.getCategories().get(0).getDistinctProducers()).isEqualTo(2);
+    }
 }
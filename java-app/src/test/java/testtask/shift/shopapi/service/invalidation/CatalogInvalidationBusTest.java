@@ -0,0 +1,135 @@
+package testtask.shift.shopapi.service.invalidation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.repository.HardDriveRepository;
+import testtask.shift.shopapi.repository.LaptopRepository;
+import testtask.shift.shopapi.repository.MonitorRepository;
+import testtask.shift.shopapi.repository.PersonalComputerRepository;
+import testtask.shift.shopapi.service.CatalogFlushEvent;
+import testtask.shift.shopapi.service.ProductSavedEvent;
+import testtask.shift.shopapi.service.invalidation.InvalidationMessage.Change;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogInvalidationBusTest {
+    private static final String PEER = "peer-1";
+
+    private final LaptopRepository laptopRepository = mock(LaptopRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void encodesAndDecodesMessages() {
+        InvalidationMessage message = new InvalidationMessage(PEER, 7, false,
+                List.of(new Change(ProductCategory.LAPTOPS, 12), new Change(ProductCategory.PERSONAL_COMPUTERS, 5)));
+
+        assertThat(message.encode()).isEqualTo("v1|peer-1|7|laptops:12,pcs:5");
+        assertThat(InvalidationMessage.decode(message.encode())).isEqualTo(message);
+        assertThat(InvalidationMessage.decode(InvalidationMessage.flushAll(PEER, 8).encode()).flushAll()).isTrue();
+        assertThatThrownBy(() -> InvalidationMessage.decode("v1|peer-1|x|laptops:1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void partitionsChangesToFitNotifyPayloadLimit() {
+        List<Change> changes = new ArrayList<>();
+        for (long id = 1_000_000; id < 1_002_000; id++) {
+            changes.add(new Change(ProductCategory.HARD_DRIVES, id));
+        }
+
+        List<List<Change>> batches = InvalidationMessage.partition(PEER, changes, 500);
+
+        assertThat(batches).hasSizeGreaterThan(1);
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(changes.size());
+        for (List<Change> batch : batches) {
+            String payload = new InvalidationMessage(PEER, Long.MAX_VALUE, false, batch).encode();
+            assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(500);
+        }
+    }
+
+    @Test
+    void batchesLocalWritesIntoVersionedMessages() {
+        CatalogInvalidationBus bus = newBus(2);
+
+        bus.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop(1L)));
+        bus.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop(1L)));
+        List<String> first = bus.drainOutbox(new ArrayList<>());
+        bus.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop(2L)));
+        bus.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop(3L)));
+        bus.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop(4L)));
+        List<String> overflow = bus.drainOutbox(new ArrayList<>());
+
+        assertThat(first).containsExactly("v1|" + bus.getOrigin() + "|1|laptops:1");
+        assertThat(overflow).containsExactly("v1|" + bus.getOrigin() + "|2|*");
+    }
+
+    @Test
+    void appliesRemoteChangesWithoutEchoingThem() {
+        CatalogInvalidationBus bus = newBus(100);
+        Laptop laptop = laptop(12L);
+        when(laptopRepository.findAllById(Set.of(12L))).thenAnswer(invocation -> {
+            bus.onProductSaved(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop));
+            return List.of(laptop);
+        });
+
+        bus.handle("v1|" + PEER + "|1|laptops:12");
+
+        verify(eventPublisher).publishEvent(new ProductSavedEvent(ProductCategory.LAPTOPS, laptop));
+        assertThat(bus.drainOutbox(new ArrayList<>())).isEmpty();
+        assertThat(meterRegistry.counter("shop.invalidation.messages", "direction", "received").count()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresOwnMessages() {
+        CatalogInvalidationBus bus = newBus(100);
+
+        bus.handle("v1|" + bus.getOrigin() + "|1|laptops:12");
+
+        verifyNoInteractions(laptopRepository, eventPublisher);
+    }
+
+    @Test
+    void flushesEverythingOnVersionGapOrFlushRequest() {
+        CatalogInvalidationBus bus = newBus(100);
+        when(laptopRepository.findAllById(any())).thenReturn(List.of());
+
+        bus.handle("v1|" + PEER + "|1|laptops:1");
+        verify(eventPublisher, never()).publishEvent(any(CatalogFlushEvent.class));
+        bus.handle("v1|" + PEER + "|3|laptops:2");
+        bus.handle("v1|" + PEER + "|4|*");
+
+        assertThat(meterRegistry.counter("shop.invalidation.flushes").count()).isEqualTo(2);
+        verify(laptopRepository, never()).findAllById(Set.of(2L));
+    }
+
+    private CatalogInvalidationBus newBus(int outboxCapacity) {
+        return new CatalogInvalidationBus(laptopRepository, mock(MonitorRepository.class),
+                mock(PersonalComputerRepository.class), mock(HardDriveRepository.class), mock(JdbcTemplate.class),
+                new DataSourceProperties(), eventPublisher, meterRegistry, "shop_catalog_invalidation",
+                outboxCapacity, 50, 500, 1_000);
+    }
+
+    private static Laptop laptop(Long id) {
+        return new Laptop(id, "LN-" + id, "Lenovo", new BigDecimal("999.99"), 3L, LaptopSize.Inch15);
+    }
+}
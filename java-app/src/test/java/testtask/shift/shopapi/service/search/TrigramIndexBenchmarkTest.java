@@ -0,0 +1,66 @@
+package testtask.shift.shopapi.service.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class TrigramIndexBenchmarkTest {
+    private static final String[] PRODUCERS = {"Samsung", "Lenovo", "Acer", "Asus", "Dell", "Hewlett-Packard",
+            "Gigabyte", "Seagate", "Western Digital", "Kingston", "Toshiba", "Philips", "ViewSonic", "Microsoft"};
+
+    @Test
+    void answersMillionProductCatalogWithinLatencyBudget() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+        SplittableRandom random = new SplittableRandom(42);
+        ProductCategory[] categories = ProductCategory.values();
+        String[] series = new String[1_000_000];
+        for (int i = 0; i < series.length; i++) {
+            String producer = PRODUCERS[random.nextInt(PRODUCERS.length)] + " " + random.nextInt(5_000);
+            series[i] = String.format("SN%010X", random.nextLong(1L << 40));
+            index.put(categories[i % categories.length], i, producer, series[i]);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            index.search(query(i, series, random), 0, 20);
+        }
+
+        int queries = 2_000;
+        long[] latencies = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            String query = query(i, series, random);
+            long started = System.nanoTime();
+            TrigramIndex.Result result = index.search(query, 0, 20);
+            latencies[i] = System.nanoTime() - started;
+            if (i % 2 == 0) {
+                assertThat(result.totalMatches()).isPositive();
+            }
+        }
+
+        Arrays.sort(latencies);
+        long p50 = latencies[queries / 2] / 1_000_000;
+        long p99 = latencies[(int) (queries * 0.99)] / 1_000_000;
+        System.out.printf("Trigram search over 1M products: p50 %d ms, p99 %d ms%n", p50, p99);
+        assertThat(p99).isLessThan(20);
+    }
+
+    private static String query(int i, String[] series, SplittableRandom random) {
+        return i % 2 == 0
+                ? series[random.nextInt(series.length)].substring(3, 9)
+                : misspell(PRODUCERS[random.nextInt(PRODUCERS.length)], random) + " " + random.nextInt(5_000);
+    }
+
+    private static String misspell(String word, SplittableRandom random) {
+        char[] chars = word.toCharArray();
+        int i = 1 + random.nextInt(chars.length - 2);
+        char swap = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = swap;
+        return new String(chars);
+    }
+}
@@ -0,0 +1,82 @@
+package testtask.shift.shopapi.service.search;
+
+import org.junit.jupiter.api.Test;
+import testtask.shift.shopapi.model.ProductCategory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrigramIndexTest {
+    @Test
+    void findsPartialSeriesNumbersAcrossCategories() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+        index.put(ProductCategory.LAPTOPS, 1L, "Lenovo", "LN-4471-X");
+        index.put(ProductCategory.HARD_DRIVES, 2L, "Seagate", "ST-4471");
+        index.put(ProductCategory.MONITORS, 3L, "Dell", "DL-9000");
+
+        TrigramIndex.Result result = index.search("4471", 0, 10);
+
+        assertThat(result.hits()).extracting(TrigramIndex.Hit::id).containsExactly(2L, 1L);
+        assertThat(result.totalMatches()).isEqualTo(2);
+        assertThat(result.truncated()).isFalse();
+    }
+
+    @Test
+    void toleratesMisspelledProducers() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+        index.put(ProductCategory.MONITORS, 1L, "Samsung", "SM-1");
+        index.put(ProductCategory.MONITORS, 2L, "Philips", "PH-1");
+
+        TrigramIndex.Result result = index.search("samsnug", 0, 10);
+
+        assertThat(result.hits()).extracting(TrigramIndex.Hit::producer).containsExactly("Samsung");
+        assertThat(result.hits().get(0).score()).isLessThan(0.5);
+    }
+
+    @Test
+    void ranksExactMatchesFirstAndPages() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+        index.put(ProductCategory.LAPTOPS, 1L, "Acer", "AC-100-EXTENDED");
+        index.put(ProductCategory.LAPTOPS, 2L, "Acer", "AC-100");
+        index.put(ProductCategory.LAPTOPS, 3L, "Acer", "AC-100-X");
+
+        assertThat(index.search("ac-100", 0, 2).hits()).extracting(TrigramIndex.Hit::id).containsExactly(2L, 3L);
+        assertThat(index.search("ac-100", 2, 2).hits()).extracting(TrigramIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("ac-100", 4, 2).hits()).isEmpty();
+    }
+
+    @Test
+    void replacesEditedProducts() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+        index.put(ProductCategory.LAPTOPS, 1L, "Asus", "OLD-123");
+        index.put(ProductCategory.LAPTOPS, 1L, "Asus", "NEW-456");
+        index.put(ProductCategory.MONITORS, 1L, "Asus", "OLD-123");
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("old-123", 0, 10).hits()).extracting(TrigramIndex.Hit::category)
+                .containsExactly(ProductCategory.MONITORS);
+        assertThat(index.search("new-456", 0, 10).hits()).hasSize(1);
+    }
+
+    @Test
+    void rejectsShortQueries() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+
+        assertThatThrownBy(() -> index.search(" ab ", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reclaimsReplacedDocumentsAndTerms() {
+        TrigramIndex index = new TrigramIndex(0.3, 100_000);
+        index.put(ProductCategory.MONITORS, 7L, "Dell", "DL-7");
+        for (int i = 0; i < 10_000; i++) {
+            index.put(ProductCategory.LAPTOPS, 1L, "Lenovo", "LN-" + i);
+        }
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.terms()).isLessThan(100);
+        assertThat(index.search("ln-9999", 0, 10).hits()).extracting(TrigramIndex.Hit::seriesNumber).containsExactly("LN-9999");
+        assertThat(index.search("ln-5000", 0, 10).hits()).extracting(TrigramIndex.Hit::seriesNumber).doesNotContain("LN-5000");
+        assertThat(index.search("dl-7", 0, 10).hits()).extracting(TrigramIndex.Hit::id).containsExactly(7L);
+    }
+}
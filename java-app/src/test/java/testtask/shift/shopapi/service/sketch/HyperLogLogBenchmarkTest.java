@@ -0,0 +1,80 @@
+package testtask.shift.shopapi.service.sketch;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Tag("benchmark")
+class HyperLogLogBenchmarkTest {
+    private static final int ROWS = 1_000_000;
+
+    @Test
+    void sketchesMillionRowCatalogFasterAndSmallerThanExactSets() {
+        String[] producers = new String[ROWS];
+        String[] series = new String[ROWS];
+        SplittableRandom random = new SplittableRandom(2026);
+        for (int row = 0; row < ROWS; row++) {
+            producers[row] = "producer-" + random.nextInt(50_000);
+            series[row] = "SN-" + random.nextInt(800_000);
+        }
+
+        long sketchNanos = Long.MAX_VALUE;
+        long exactNanos = Long.MAX_VALUE;
+        HyperLogLog producerSketch = null;
+        HyperLogLog seriesSketch = null;
+        Set<String> exactProducers = null;
+        Set<String> exactSeries = null;
+        for (int round = 0; round < 5; round++) {
+            long started = System.nanoTime();
+            producerSketch = new HyperLogLog(14);
+            seriesSketch = new HyperLogLog(14);
+            for (int row = 0; row < ROWS; row++) {
+                producerSketch.add(producers[row]);
+                seriesSketch.add(series[row]);
+            }
+            sketchNanos = Math.min(sketchNanos, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            exactProducers = new HashSet<>();
+            exactSeries = new HashSet<>();
+            for (int row = 0; row < ROWS; row++) {
+                exactProducers.add(producers[row]);
+                exactSeries.add(series[row]);
+            }
+            exactNanos = Math.min(exactNanos, System.nanoTime() - started);
+        }
+
+        long withExactSets = usedHeap();
+        int exactProducerCount = exactProducers.size();
+        int exactSeriesCount = exactSeries.size();
+        exactProducers = null;
+        exactSeries = null;
+        long exactBytes = withExactSets - usedHeap();
+
+        double producerError = Math.abs(producerSketch.estimate() - exactProducerCount) / (double) exactProducerCount;
+        double seriesError = Math.abs(seriesSketch.estimate() - exactSeriesCount) / (double) exactSeriesCount;
+        System.out.printf("producers %,d (error %.2f%%), series %,d (error %.2f%%)%n",
+                exactProducerCount, producerError * 100, exactSeriesCount, seriesError * 100);
+        System.out.printf("hyperloglog %,d bytes, fill %d ms; hashset ~%,d bytes, fill %d ms%n",
+                producerSketch.getSizeInBytes() + seriesSketch.getSizeInBytes(), sketchNanos / 1_000_000,
+                exactBytes, exactNanos / 1_000_000);
+
+        double tolerance = 3 * producerSketch.getRelativeStandardError();
+        assertThat(producerError).isCloseTo(0.0, within(tolerance));
+        assertThat(seriesError).isCloseTo(0.0, within(tolerance));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,64 @@
+package testtask.shift.shopapi.service.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesCatalogWithinThreeStandardErrors() {
+        HyperLogLog producers = new HyperLogLog(14);
+        HyperLogLog series = new HyperLogLog(14);
+        Set<String> exactProducers = new HashSet<>();
+        Set<String> exactSeries = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(2026);
+
+        for (int row = 0; row < 100_000; row++) {
+            String producer = "producer-" + random.nextInt(5_000);
+            String seriesNumber = "SN-" + random.nextInt(80_000);
+            producers.add(producer);
+            series.add(seriesNumber);
+            exactProducers.add(producer);
+            exactSeries.add(seriesNumber);
+        }
+
+        double tolerance = 3 * producers.getRelativeStandardError();
+        assertThat((double) producers.estimate()).isCloseTo(exactProducers.size(), within(tolerance * exactProducers.size()));
+        assertThat((double) series.estimate()).isCloseTo(exactSeries.size(), within(tolerance * exactSeries.size()));
+        assertThat(series.getSizeInBytes()).isEqualTo(16_384);
+    }
+
+    @Test
+    void mergeEqualsUnionOfInputs() {
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        HyperLogLog union = new HyperLogLog(12);
+        for (int i = 0; i < 30_000; i++) {
+            left.add("a" + i);
+            right.add("a" + (i + 15_000));
+            union.add("a" + i);
+            union.add("a" + (i + 15_000));
+        }
+
+        left.merge(right);
+
+        assertThat(left.estimate()).isEqualTo(union.estimate());
+        assertThat((double) left.estimate()).isCloseTo(45_000, within(45_000 * 3 * left.getRelativeStandardError()));
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("producer-" + (i % 10));
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,93 @@
+package testtask.shift.shopapi.service.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class KllSketchTest {
+    private static final int N = 1_000_000;
+
+    @Test
+    void quantilesStayWithinRankErrorOnMillionValues() {
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(42));
+        for (int value : shuffledRange(N, 7)) {
+            sketch.update(value);
+        }
+
+        double tolerance = sketch.getNormalizedRankError() * N;
+        assertThat(sketch.getCount()).isEqualTo(N);
+        assertThat(sketch.quantile(0.5)).isCloseTo(0.5 * N, within(tolerance));
+        assertThat(sketch.quantile(0.9)).isCloseTo(0.9 * N, within(tolerance));
+        assertThat(sketch.quantile(0.99)).isCloseTo(0.99 * N, within(tolerance));
+    }
+
+    @Test
+    void retainedItemsStayBoundedAsStreamGrows() {
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(1));
+        int retainedAfterTenThousand = 0;
+        for (int i = 0; i < N; i++) {
+            sketch.update(i);
+            if (i == 10_000) {
+                retainedAfterTenThousand = sketch.getRetainedItems();
+            }
+        }
+
+        assertThat(sketch.getRetainedItems()).isLessThan(4 * 200);
+        assertThat(sketch.getRetainedItems()).isLessThan(retainedAfterTenThousand + 200);
+    }
+
+    @Test
+    void mergedSketchMatchesCombinedStream() {
+        KllSketch lower = new KllSketch(200, new SplittableRandom(3));
+        KllSketch upper = new KllSketch(200, new SplittableRandom(4));
+        for (int i = 0; i < 100_000; i++) {
+            lower.update(i);
+            upper.update(100_000 + i);
+        }
+
+        lower.merge(upper);
+
+        assertThat(lower.getCount()).isEqualTo(200_000);
+        assertThat(lower.quantile(0.5)).isCloseTo(100_000, within(lower.getNormalizedRankError() * 200_000));
+    }
+
+    @Test
+    void quantilesReflectUpdatesAfterEarlierQuery() {
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(5));
+        for (int i = 0; i < 10_000; i++) {
+            sketch.update(i);
+        }
+        double tolerance = sketch.getNormalizedRankError() * 20_000;
+        assertThat(sketch.quantile(0.5)).isCloseTo(5_000, within(tolerance));
+
+        for (int i = 10_000; i < 20_000; i++) {
+            sketch.update(i);
+        }
+
+        assertThat(sketch.quantile(0.5)).isCloseTo(10_000, within(tolerance));
+        assertThat(sketch.quantile(0.0)).isLessThan(sketch.quantile(1.0));
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        assertThat(new KllSketch(200).quantile(0.5)).isNaN();
+    }
+
+    private static int[] shuffledRange(int n, long seed) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+}
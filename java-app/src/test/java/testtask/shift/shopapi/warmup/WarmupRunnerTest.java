@@ -0,0 +1,147 @@
+package testtask.shift.shopapi.warmup;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.env.MockEnvironment;
+import testtask.shift.shopapi.model.ProductCategory;
+import testtask.shift.shopapi.service.CatalogScanner;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmupRunnerTest {
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final CatalogScanner catalogScanner = mock(CatalogScanner.class);
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void stubCatalog() {
+        when(catalogScanner.firstId(ProductCategory.LAPTOPS)).thenReturn(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void fillsPoolsAndCallsEveryEndpointUntilCompilationSettles() throws Exception {
+        startServer();
+        HikariDataSource pool = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(connection);
+        when(pool.getMinimumIdle()).thenReturn(3);
+
+        newRunner(pools(pool), 3, 100, 2, Long.MAX_VALUE, 30_000).warmUp();
+
+        verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof AvailabilityChangeEvent<?> change
+                && change.getState() == ReadinessState.REFUSING_TRAFFIC));
+        verify(pool, times(3)).getConnection();
+        verify(connection, times(3)).close();
+        assertThat(hits).containsOnlyKeys("/api/stats/insights", "/api/stats", "/api/laptops/7");
+        assertThat(hits.get("/api/stats/insights")).hasValue(1);
+        assertThat(hits.get("/api/stats")).hasValue(3);
+        assertThat(hits.get("/api/laptops/7")).hasValue(3);
+        assertThat(meterRegistry.counter("shop.warmup.rounds").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("shop.warmup.calls", "result", "success").count()).isEqualTo(7);
+        assertThat(meterRegistry.counter("shop.warmup.calls", "result", "failure").count()).isZero();
+    }
+
+    @Test
+    void countsNotFoundAsFailure() throws Exception {
+        startServer();
+
+        new WarmupRunner(eventPublisher, environment, pools(), catalogScanner, meterRegistry, List.of(),
+                List.of("/api/stats", "/api/laptops/1"), 1, 1, 1, Long.MAX_VALUE, 30_000, 1_000).warmUp();
+
+        assertThat(hits.get("/api/laptops/1")).hasValue(1);
+        assertThat(meterRegistry.counter("shop.warmup.calls", "result", "success").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("shop.warmup.calls", "result", "failure").count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsIdPathsOfEmptyCategories() throws Exception {
+        startServer();
+        when(catalogScanner.firstId(ProductCategory.LAPTOPS)).thenReturn(null);
+
+        newRunner(pools(), 2, 100, 1, Long.MAX_VALUE, 30_000).warmUp();
+
+        assertThat(hits).containsOnlyKeys("/api/stats/insights", "/api/stats");
+        assertThat(meterRegistry.counter("shop.warmup.calls", "result", "failure").count()).isZero();
+    }
+
+    @Test
+    void stopsWhenBudgetRunsOut() throws Exception {
+        startServer();
+        WarmupRunner runner = newRunner(pools(), 0, Integer.MAX_VALUE, 1, -1, 200);
+
+        runner.warmUp();
+
+        assertThat(meterRegistry.timer("shop.warmup.duration").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("shop.warmup.duration").totalTime(TimeUnit.SECONDS)).isLessThan(10);
+    }
+
+    @Test
+    void givesUpWhenEveryCallFails() {
+        environment.setProperty("local.server.port", "1");
+
+        newRunner(pools(), 5, 100, 1, Long.MAX_VALUE, 30_000).warmUp();
+
+        assertThat(meterRegistry.counter("shop.warmup.rounds").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("shop.warmup.calls", "result", "failure").count()).isEqualTo(3);
+    }
+
+    private void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/1") ? 404 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+        environment.setProperty("local.server.port", Integer.toString(server.getAddress().getPort()));
+    }
+
+    private WarmupRunner newRunner(ObjectProvider<HikariDataSource> pools, int minRounds, int maxRounds,
+                                   int stableRounds, long stableCompilationMs, long budgetMs) {
+        return new WarmupRunner(eventPublisher, environment, pools, catalogScanner, meterRegistry,
+                List.of("/api/stats/insights"), List.of("/api/stats", "/api/laptops/{id}"), minRounds, maxRounds, stableRounds, stableCompilationMs,
+                budgetMs, 1_000);
+    }
+
+    private static ObjectProvider<HikariDataSource> pools(HikariDataSource... pools) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < pools.length; i++) {
+            beanFactory.addBean("pool" + i, pools[i]);
+        }
+        return beanFactory.getBeanProvider(HikariDataSource.class);
+    }
+}
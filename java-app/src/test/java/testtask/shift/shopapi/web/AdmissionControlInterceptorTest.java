@@ -0,0 +1,113 @@
+package testtask.shift.shopapi.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import testtask.shift.shopapi.controller.LaptopController;
+import testtask.shift.shopapi.controller.StatsController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AdmissionControlInterceptorTest {
+    private final Bulkhead stats = new Bulkhead("stats", 1);
+    private final Bulkhead read = new Bulkhead("read", 2);
+    private final Bulkhead write = new Bulkhead("write", 1);
+    private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter(2, 1, 2);
+    private final AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+    private final AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(
+            stats, read, readLimiter, write, writeLimiter, 2);
+
+    @Test
+    void saturatedStatsBulkheadDoesNotBlockReads() throws Exception {
+        MockHttpServletRequest statsRequest = new MockHttpServletRequest("GET", "/api/stats/insights");
+        assertThat(interceptor.preHandle(statsRequest, new MockHttpServletResponse(), statsHandler())).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/stats"), rejected, statsHandler())).isFalse();
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+
+        MockHttpServletRequest readRequest = new MockHttpServletRequest("GET", "/api/laptops/1");
+        assertThat(interceptor.preHandle(readRequest, new MockHttpServletResponse(), laptopHandler())).isTrue();
+        assertThat(read.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesPermitOnCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/laptops/add");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, laptopHandler());
+        assertThat(write.getInFlight()).isEqualTo(1);
+
+        interceptor.afterCompletion(request, response, laptopHandler(), null);
+        assertThat(write.getInFlight()).isZero();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/laptops/add"),
+                new MockHttpServletResponse(), laptopHandler())).isTrue();
+    }
+
+    @Test
+    void slowStatsDoNotShrinkTheReadLimit() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            MockHttpServletRequest statsRequest = new MockHttpServletRequest("GET", "/api/stats");
+            interceptor.preHandle(statsRequest, new MockHttpServletResponse(), statsHandler());
+            Thread.sleep(1);
+            interceptor.afterCompletion(statsRequest, new MockHttpServletResponse(), statsHandler(), null);
+        }
+
+        assertThat(readLimiter.getLimit()).isEqualTo(2);
+        assertThat(readLimiter.getInFlight()).isZero();
+        assertThat(writeLimiter.getInFlight()).isZero();
+        assertThat(stats.getInFlight()).isZero();
+    }
+
+    @Test
+    void rejectsWhenTheLaneLimitIsReached() throws Exception {
+        AdaptiveConcurrencyLimiter shrunk = new AdaptiveConcurrencyLimiter(1, 1, 2);
+        AdmissionControlInterceptor limited = new AdmissionControlInterceptor(stats, read, shrunk, write, writeLimiter, 2);
+        assertThat(limited.preHandle(new MockHttpServletRequest("GET", "/api/laptops"), new MockHttpServletResponse(), laptopHandler())).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThat(limited.preHandle(new MockHttpServletRequest("GET", "/api/laptops"), rejected, laptopHandler())).isFalse();
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(read.getInFlight()).isEqualTo(1);
+        assertThat(limited.preHandle(new MockHttpServletRequest("POST", "/api/laptops/add"),
+                new MockHttpServletResponse(), laptopHandler())).isTrue();
+    }
+
+    @Test
+    void adaptiveLimitShrinksWhenLatencyGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100);
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, 1_000_000L);
+        }
+        int steadyLimit = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter, 20_000_000L);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(steadyLimit).isGreaterThanOrEqualTo(5);
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+
+    private HandlerMethod statsHandler() throws NoSuchMethodException {
+        return new HandlerMethod(mock(StatsController.class), StatsController.class.getMethod("getStats", Long.class));
+    }
+
+    private HandlerMethod laptopHandler() throws NoSuchMethodException {
+        return new HandlerMethod(mock(LaptopController.class), LaptopController.class.getMethod("getLaptops"));
+    }
+}
@@ -0,0 +1,76 @@
+package testtask.shift.shopapi.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class ResponseEncodingBenchmarkTest {
+    private static final TypeReference<List<Laptop>> LAPTOPS = new TypeReference<>() {
+    };
+
+    @Test
+    void binaryFormatsShrinkHundredThousandProductList() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Laptop> laptops = new ArrayList<>(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            laptops.add(new Laptop((long) i, String.format("SN%010X", random.nextLong(1L << 40)),
+                    "Producer " + random.nextInt(500), BigDecimal.valueOf(random.nextInt(300_000), 2),
+                    (long) random.nextInt(100), LaptopSize.values()[random.nextInt(4)]));
+        }
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", new ObjectMapper());
+        mappers.put("cbor", new CBORMapper());
+        mappers.put("smile", new SmileMapper());
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(laptops);
+            assertThat(mapper.readValue(encoded, LAPTOPS)).hasSize(laptops.size());
+
+            long encodeNanos = Long.MAX_VALUE;
+            long decodeNanos = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long started = System.nanoTime();
+                encoded = mapper.writeValueAsBytes(laptops);
+                encodeNanos = Math.min(encodeNanos, System.nanoTime() - started);
+                started = System.nanoTime();
+                mapper.readValue(encoded, LAPTOPS);
+                decodeNanos = Math.min(decodeNanos, System.nanoTime() - started);
+            }
+            sizes.put(entry.getKey(), encoded.length);
+            System.out.printf("%-5s %,11d bytes, gzip %,10d bytes, encode %4d ms, decode %4d ms%n", entry.getKey(),
+                    encoded.length, gzip(encoded).length, encodeNanos / 1_000_000, decodeNanos / 1_000_000);
+        }
+
+        assertThat(sizes.get("cbor")).isLessThan(sizes.get("json"));
+        assertThat(sizes.get("smile")).isLessThan(sizes.get("json"));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,147 @@
+package testtask.shift.shopapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import testtask.shift.shopapi.model.laptop.Laptop;
+import testtask.shift.shopapi.model.laptop.LaptopSize;
+import testtask.shift.shopapi.routing.ReadWriteRoutingDataSource;
+import testtask.shift.shopapi.service.ResponseSnapshotService;
+import testtask.shift.shopapi.service.ResponseSnapshotService.Snapshot;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseSnapshotInterceptorTest {
+    private final ResponseSnapshotService snapshotService = mock(ResponseSnapshotService.class);
+    private final ResponseSnapshotInterceptor interceptor = new ResponseSnapshotInterceptor(snapshotService);
+
+    @Test
+    void servesStoredBytesWithoutReachingController() throws Exception {
+        Snapshot snapshot = new Snapshot(ApiMediaTypes.JSON, "[{\"id\":1}]".getBytes(), new byte[]{1, 2, 3});
+        when(snapshotService.get("laptops", ApiMediaTypes.JSON)).thenReturn(snapshot);
+
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(request("/api/laptops"), plain, null)).isFalse();
+        assertThat(plain.getContentAsString()).isEqualTo("[{\"id\":1}]");
+        assertThat(plain.getContentType()).isEqualTo(ApiMediaTypes.JSON);
+
+        MockHttpServletRequest gzipRequest = request("/api/laptops/");
+        gzipRequest.addHeader("Accept-Encoding", "br, gzip");
+        MockHttpServletResponse gzipped = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(gzipRequest, gzipped, null)).isFalse();
+        assertThat(gzipped.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(gzipped.getContentAsByteArray()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void passesThroughQueriesMissesAndOtherFormats() throws Exception {
+        MockHttpServletRequest projected = request("/api/laptops");
+        projected.setQueryString("fields=id");
+        assertThat(interceptor.preHandle(projected, new MockHttpServletResponse(), null)).isTrue();
+
+        assertThat(interceptor.preHandle(request("/api/stats"), new MockHttpServletResponse(), null)).isTrue();
+
+        MockHttpServletRequest xml = request("/api/laptops");
+        xml.addHeader("Accept", "application/xml");
+        assertThat(interceptor.preHandle(xml, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    void passesThroughRequestsInsideReadYourWritesWindow() throws Exception {
+        when(snapshotService.get("laptops", ApiMediaTypes.JSON))
+                .thenReturn(new Snapshot(ApiMediaTypes.JSON, "[]".getBytes(), null));
+        ReadWriteRoutingDataSource.setPrimaryForced(true);
+        try {
+            assertThat(interceptor.preHandle(request("/api/laptops"), new MockHttpServletResponse(), null)).isTrue();
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryForced(false);
+        }
+    }
+
+    @Test
+    void negotiatesBinaryFormats() {
+        assertThat(ResponseSnapshotInterceptor.negotiate(null)).isEqualTo(ApiMediaTypes.JSON);
+        assertThat(ResponseSnapshotInterceptor.negotiate("*/*")).isEqualTo(ApiMediaTypes.JSON);
+        assertThat(ResponseSnapshotInterceptor.negotiate("application/x-jackson-smile, application/json;q=0.5"))
+                .isEqualTo(ApiMediaTypes.SMILE);
+        assertThat(ResponseSnapshotInterceptor.negotiate("application/cbor")).isEqualTo(ApiMediaTypes.CBOR);
+        assertThat(ResponseSnapshotInterceptor.negotiate("text/html")).isNull();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void cacheHitCostsFractionOfSerialization() throws Exception {
+        List<Laptop> laptops = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            laptops.add(new Laptop((long) i, "SN-" + i, "Producer " + i % 100, new BigDecimal("499.99"), 5L, LaptopSize.Inch15));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] body = objectMapper.writeValueAsBytes(laptops);
+        when(snapshotService.get("laptops", ApiMediaTypes.JSON)).thenReturn(new Snapshot(ApiMediaTypes.JSON, body, null));
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        int requests = 200;
+        for (int i = 0; i < requests; i++) {
+            objectMapper.writeValueAsBytes(laptops);
+            interceptor.preHandle(request("/api/laptops"), new DiscardingResponse(), null);
+        }
+
+        long started = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            objectMapper.writeValueAsBytes(laptops);
+        }
+        long serializationNanos = (threads.getCurrentThreadCpuTime() - started) / requests;
+
+        started = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < requests; i++) {
+            interceptor.preHandle(request("/api/laptops"), new DiscardingResponse(), null);
+        }
+        long hitNanos = (threads.getCurrentThreadCpuTime() - started) / requests;
+
+        System.out.printf("10k laptops (%d bytes): serialization %d us CPU, snapshot hit %d us CPU per request%n",
+                body.length, serializationNanos / 1_000, hitNanos / 1_000);
+        assertThat(hitNanos).isLessThan(serializationNanos / 5);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static class DiscardingResponse extends MockHttpServletResponse {
+        private final ServletOutputStream sink = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return sink;
+        }
+    }
+}